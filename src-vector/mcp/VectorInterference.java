@@ -0,0 +1,62 @@
+package mcp;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+ * The interference sum with the Vector API (incubator module, needs --add-modules jdk.incubator.vector
+ * at compile time and at run time, see InterferenceKernel.select). It lives in its own source directory so
+ * that the rest of the sources compile with a plain javac, and is compiled on its own against them:
+ *
+ *   javac --add-modules jdk.incubator.vector -cp <classes of src> -d <classes of src> src-vector/mcp/*.java
+ *
+ * The terms ceil(R / T_j) * C_j are computed several tasks at a time, the division and the product
+ * are the IEEE ones so every lane gives the double the scalar code gives. The API has no ceil, so the
+ * quotient is rounded to an integer by adding and subtracting 2^52 (exact for the positive quotients
+ * below 2^52, the ones above are integers already), plus one where the rounding went below the quotient.
+ * Converting to long and back does the same but is not compiled to vector instructions in Java 17.
+ * The terms are then added in order, a lanewise reduction would add them in another order and round
+ * differently.
+ * Small cores go through the scalar loop, there is nothing to gain below a couple of vectors.
+ * */
+class VectorInterference implements InterferenceKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double TWO_52 = 4503599627370496.0;
+
+    // the terms of the sum, one array per thread (several threads evaluate moves at the same time)
+    private final ThreadLocal<double[]> terms = ThreadLocal.withInitial(() -> new double[64]);
+
+    @Override
+    public double interference(double responseTime, double[] periods, double[] wcets, int count) {
+        if (count < 2 * SPECIES.length()) {
+            return ScalarInterference.sum(responseTime, periods, wcets, count);
+        }
+        double[] t = terms.get();
+        if (t.length < count) {
+            t = new double[Math.max(count, 2 * t.length)];
+            terms.set(t);
+        }
+
+        DoubleVector r = DoubleVector.broadcast(SPECIES, responseTime);
+        int upper = SPECIES.loopBound(count);
+        int j = 0;
+        for (; j < upper; j += SPECIES.length()) {
+            DoubleVector quotient = r.div(DoubleVector.fromArray(SPECIES, periods, j));
+            DoubleVector rounded = quotient.add(TWO_52).sub(TWO_52);
+            DoubleVector ceil = rounded.blend(rounded.add(1.0), rounded.compare(VectorOperators.LT, quotient))
+                    .blend(quotient, quotient.compare(VectorOperators.GE, TWO_52));
+            ceil.mul(DoubleVector.fromArray(SPECIES, wcets, j)).intoArray(t, j);
+        }
+        for (; j < count; j++) {
+            t[j] = Math.ceil(responseTime / periods[j]) * wcets[j];
+        }
+
+        double intSum = 0;
+        for (int k = 0; k < count; k++) {
+            intSum += t[k];
+        }
+        return intSum;
+    }
+}
@@ -3,22 +3,67 @@ package algos;
 import mcp.Core;
 import mcp.MCP;
 import mcp.Parser;
+import mcp.Placement;
+import mcp.ScaledWcet;
+import mcp.SolutionValidator;
 import mcp.Task;
 import mcp.XMLExport;
 
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import javax.xml.stream.XMLStreamException;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import java.util.Collections;
 public class Algorithms {
     public List<MCP> mcps;
     private int perfectLaxity = 0;
+    // cost of one unschedulable task
+    int penalty = 5000;
+
+    // all the random choices go through this generator so that a run can be reproduced with setSeed
+    Random random = new Random();
+    // prints the progress of the annealing at every temperature level
+    boolean verbose = true;
+
+    // time-to-target bookkeeping, the time (in ns since the start of the annealing)
+    // at which the current cost first went below targetCost, -1 if it never did
+    double targetCost = Double.NEGATIVE_INFINITY;
+    long timeToTarget = -1;
+
+    // upper bound on the total laxity (see LaxityBound), the annealing stops as soon as all the tasks
+    // are schedulable and the total laxity is within the relative gap of it
+    long laxityBound = Long.MAX_VALUE;
+    double gap = 0;
+
+    // the temperature the last annealing ended at, to continue cooling from there
+    double finalTemperature;
+    // number of moves tried so far
+    long steps = 0;
+    // the move of the current step, and whether the last step kept it
+    final Move move = new Move();
+    boolean accepted;
+
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
 
     /*
      * perfect laxity, is the laxity where there is no interference of other tasks.
      * perfectLaxity is used in the cost function. 
      * */
     void perfectLaxity() {
+        perfectLaxity = 0;
         for (MCP mcp : mcps) {
             for (Core core : mcp.getCores()) {
                 for (Task task : core.getTasks()) {
@@ -41,33 +86,38 @@ public class Algorithms {
     {
         int totalTasks = 0;
         long totalLaxity = 0;
-        int penalty = 5000;
         int unschedulable = 0;
 
-        for(MCP mcp : mcps) {
-            for (Core core : mcp.getCores()) {
+        // indexed loops, the step calls this at every move and must not allocate iterators
+        for (int m = 0; m < mcps.size(); m++) {
+            List<Core> cores = mcps.get(m).getCores();
+            for (int c = 0; c < cores.size(); c++) {
+                Core core = cores.get(c);
                 unschedulable += core.getUnschedulable();
                 totalTasks += core.getTasks().size();
                 totalLaxity += core.getLaxity();
             }
         }
 
-        penalty *= unschedulable;
+        return cost(totalLaxity, unschedulable, totalTasks);
 
-        return (1.0/totalTasks * (perfectLaxity-(totalLaxity-penalty)));
+    }
 
+    // the cost of a configuration with this total laxity and this number of unschedulable tasks
+    double cost(long totalLaxity, int unschedulable, int totalTasks)
+    {
+        int penalty = this.penalty * unschedulable;
+        return (1.0/totalTasks * (perfectLaxity-(totalLaxity-penalty)));
     }
 
 
 
     // just move a task to another :
-    Task exchangeRandomTasks(Core coreA, Core coreB)
+    Task exchangeRandomTasks(Core coreA, int index, Core coreB)
     {
-        Task taskA = coreA.getRandomTask();
+        Task taskA = coreA.getTaskByIndex(index);
 
         coreB.addTask(taskA);
-        coreA.sortTasks();
-        coreB.sortTasks();
 
         return taskA;
     }
@@ -81,54 +131,63 @@ public class Algorithms {
         coreB.removeTaskById(task.getId());
         coreA.addTask(task);
 
-        coreA.sortTasks();
-        coreB.sortTasks();
-
     }
 
 
-    // step selects a neighbor configuration (a configuration where we have
-    // exchanged 2 tasks) and decides if the algorithm chooses them or not
-    //this algorithm is heavily inspired by peportier's git repository as he was one of the teammate's former teacher
-    double step(double currentCost, double temperature) {
-
-        Task switchedTask;
+    // draws a random move: a random task of a random (non empty) core goes to another random core
+    void drawMove(Move move) {
         int randomCoreA, randomCoreB, randomMCP1, randomMCP2;
-        double newCost, costDifference;
-        randomMCP1 = (int) (Math.random()*mcps.size()); //pick a random MCP
-        randomMCP2 = (int) (Math.random()*mcps.size()); //pick a random MCP
+        randomMCP1 = (int) (random.nextDouble()*mcps.size()); //pick a random MCP
+        randomMCP2 = (int) (random.nextDouble()*mcps.size()); //pick a random MCP
 
 
-        randomCoreA = (int) (Math.random()*mcps.get(randomMCP1).getCores().size()); //pick a random core
-        randomCoreB = (int) (Math.random()*mcps.get(randomMCP2).getCores().size()); //pick a random core
+        randomCoreA = (int) (random.nextDouble()*mcps.get(randomMCP1).getCores().size()); //pick a random core
+        randomCoreB = (int) (random.nextDouble()*mcps.get(randomMCP2).getCores().size()); //pick a random core
 
         while ((randomMCP1==randomMCP2 && randomCoreA  == randomCoreB)
                 || (mcps.get(randomMCP1).getCore(randomCoreA).getTasks().size() == 0))
         {
 
-            randomMCP1 = (int) (Math.random()*mcps.size()); //pick a random MCP
-            randomCoreA = (int) (Math.random()*mcps.get(randomMCP1).getCores().size()); // select another core
+            randomMCP1 = (int) (random.nextDouble()*mcps.size()); //pick a random MCP
+            randomCoreA = (int) (random.nextDouble()*mcps.get(randomMCP1).getCores().size()); // select another core
 
         }
-        Core coreA = mcps.get(randomMCP1).getCore(randomCoreA);
-        Core coreB = mcps.get(randomMCP2).getCore(randomCoreB);
-        switchedTask = exchangeRandomTasks(coreA, coreB); // we exchange the two tasks
+        move.from = mcps.get(randomMCP1).getCore(randomCoreA);
+        move.to = mcps.get(randomMCP2).getCore(randomCoreB);
+        move.index = (int) (random.nextDouble() * move.from.getTasks().size());
+    }
+
+    // step selects a neighbor configuration (a configuration where we have
+    // exchanged 2 tasks) and decides if the algorithm chooses them or not
+    //this algorithm is heavily inspired by peportier's git repository as he was one of the teammate's former teacher
+    double step(double currentCost, double temperature) {
+
+        Task switchedTask;
+        double newCost;
+        steps++;
+        drawMove(move);
+        Core coreA = move.from;
+        Core coreB = move.to;
+        switchedTask = exchangeRandomTasks(coreA, move.index, coreB); // we exchange the two tasks
 
         newCost = cost(); // we calculate the cost of the new configuration
         double costDiff = newCost - currentCost; // the difference between the costs
         if (costDiff < 0) // the new cost is lower than the current one, they we definitely make the move
         {
             currentCost = newCost;
+            accepted = true;
         } else // otherwise, it means that the new configuration has a higher cost, so we will
                // go to it if the temperature permits it
         {
-            if (Math.random() < Math.exp(-costDiff / temperature)) // if our random number is smaller than the
+            if (random.nextDouble() < Math.exp(-costDiff / temperature)) // if our random number is smaller than the
                                                                    // temperature, we accept this poorer solution
             {
                 currentCost = newCost;
+                accepted = true;
             } else { // if our random number is bigger than the temperature, we don't accept this new
                      // configuration, and we undo the change
                 undoExchange(switchedTask,coreA, coreB); // undoing the exchange is basically redoing it (re-exchanging them)
+                accepted = false;
             }
 
         }
@@ -142,6 +201,19 @@ public class Algorithms {
 
         boolean solutionFound = false; // the solution has not been found yet
         double currentCost = cost(); // the current cost is the one of the initial state
+        // below this cost the laxity is within the gap of the bound, without a bound only a cost of 0 stops
+        // (perfectLaxity uses the unscaled WCETs, so the cost can go below 0 on fast cores)
+        boolean bounded = laxityBound != Long.MAX_VALUE;
+        double stopCost = 0;
+        if (bounded) {
+            int totalTasks = 0;
+            for (MCP mcp : mcps) {
+                for (Core core : mcp.getCores()) {
+                    totalTasks += core.getTasks().size();
+                }
+            }
+            stopCost = 1.0 / totalTasks * (perfectLaxity - (laxityBound - gap * Math.abs(laxityBound)));
+        }
         double bestCost = currentCost; // the best cost is the current cost
         double temperature = T0; // the current temperature is the minimum temperature, the one entered T0
         int elapsed = 0; // the time elapsed is at 0
@@ -150,18 +222,36 @@ public class Algorithms {
         int spent = (int) Math.floor(BETA0 * MAXTIME); // BETA0<1, we spend a fraction of the maximum time for our
                                                           // entire simulation at the begining
         // (because we're at high temperature)
+        if (spent < 1) {
+            spent = 1; // otherwise we never spend any time at a temperature and never reach MAXTIME
+        }
         int timer = spent; // our timer
+        long startTime = System.nanoTime();
+        timeToTarget = -1;
 
         
         while (elapsed < MAXTIME && !solutionFound) // while we haven't spent the whole time we allow ourselves
                                                     // (MAXTIME), and the solution hasn't been found
         {
-        	System.out.format("%d, out of %d spent \n", elapsed, MAXTIME);
+            if (verbose) {
+                System.out.format("%d, out of %d spent \n", elapsed, MAXTIME);
+            }
             bestCost = currentCost; // the best cost is the current cost
+            SolverEvents.TemperatureLevel level = new SolverEvents.TemperatureLevel();
+            level.begin();
+            long levelSteps = steps;
+            long levelAcceptances = 0;
+            long levelIterations = level.isEnabled() ? rtaIterations() : 0;
             while (timer != 0) { // we still have time at this temperature
                 currentCost = step(currentCost, temperature); // we calculate the currentcost
-                if (currentCost == 0) { // if the cost calculated is equal to zero, it means that we have found the best
-                                        // solution we can stop
+                if (accepted) {
+                    levelAcceptances++;
+                }
+                if (timeToTarget < 0 && currentCost <= targetCost) {
+                    timeToTarget = System.nanoTime() - startTime;
+                }
+                if (bounded ? currentCost <= stopCost && unschedulable() == 0 : currentCost == 0) { // if the cost is
+                                        // low enough, we are close enough to the best solution we can find and we can stop
                     bestCost = currentCost; // the best cost is 0
                     solutionFound = true; // the solution is found
                     System.out.println("Solution found");
@@ -180,6 +270,16 @@ public class Algorithms {
                 }
                 timer -= 1; // decrease the timer by 1
             }
+            level.end();
+            if (level.shouldCommit()) {
+                level.temperature = temperature;
+                level.moves = steps - levelSteps;
+                level.acceptances = levelAcceptances;
+                level.bestCost = bestCost;
+                level.currentCost = currentCost;
+                level.rtaIterations = rtaIterations() - levelIterations;
+                level.commit();
+            }
             elapsed += spent; // elapsed is the total time spent, so we add to it the time we just spent at
                               // the possible solution
           /*  System.out.println("At temperature T=" + temperature + ", time spent : " + spent + " out of " + MAXTIME
@@ -188,9 +288,40 @@ public class Algorithms {
             timer = spent;
             temperature = temperature * ALPHA; // we decrease the temperature (ALPHA<1)
         }
+        finalTemperature = temperature;
 
     }
 
+    // the fixed point iterations of the response time analysis of all the cores so far, the solvers that
+    // evaluate moves with Core.evaluate add the iterations of their Evaluations
+    long rtaIterations() {
+        long iterations = 0;
+        for (MCP mcp : mcps) {
+            for (Core core : mcp.getCores()) {
+                iterations += core.getRtaIterations();
+            }
+        }
+        return iterations;
+    }
+
+    // records the analysis counters of every core, when a recording is running
+    void recordCoreAnalyses() {
+        for (MCP mcp : mcps) {
+            for (Core core : mcp.getCores()) {
+                SolverEvents.CoreAnalysis event = new SolverEvents.CoreAnalysis();
+                if (!event.shouldCommit()) {
+                    return;
+                }
+                event.mcp = mcp.getId();
+                event.core = core.getId();
+                event.tasks = core.getTasks().size();
+                event.analyses = core.getRtaAnalyses();
+                event.iterations = core.getRtaIterations();
+                event.commit();
+            }
+        }
+    }
+
     // print configuration
     void printConfig()
     {
@@ -226,9 +357,9 @@ public class Algorithms {
         int coreId;
         for (int i=0; i<tasks.size(); i++) {
             // pick a randomMCP
-            randomMCP = (int) (Math.random()*mcps.size());
+            randomMCP = (int) (random.nextDouble()*mcps.size());
             //pick a random core from that MCP
-            randomCore = (int) (Math.random()*mcps.get(randomMCP).getCores().size());
+            randomCore = (int) (random.nextDouble()*mcps.get(randomMCP).getCores().size());
             //assign the task to the core
             mcps.get(randomMCP).getCores().get(randomCore).addTask(tasks.get(i));
         }
@@ -236,6 +367,155 @@ public class Algorithms {
 
     }
 
+    // takes every task off the cores
+    void clearAssignation()
+    {
+        for (MCP mcp : mcps) {
+            for (Core core : mcp.getCores()) {
+                core.clearTasks();
+            }
+        }
+    }
+
+    /*
+     * replaces the assignment on the cores (random, repaired or cached) by the one of the branch and bound,
+     * or by a random one for the annealing when it finds no schedulable assignment within timeLimit ms.
+     * Returns true if the branch and bound found one.
+     * */
+    boolean solveExactly(List<Task> tasks, long timeLimit)
+    {
+        BranchAndBound exact = new BranchAndBound(tasks, mcps);
+        BranchAndBound.Result result = exact.solve(timeLimit);
+        System.out.println("Branch and bound: " + result.nodes + " nodes, "
+                + (result.optimal ? "optimal" : "time limit hit"));
+        if (result.feasible) {
+            exact.apply();
+            System.out.format("total laxity %d, upper bound %d, optimality gap %.4f%%\n",
+                    result.laxity, result.bound, 100 * result.gap());
+        } else {
+            System.out.println("no schedulable assignment found, falling back to simulated annealing");
+            clearAssignation();
+            initialAssignation(tasks);
+        }
+        // the cores were empty (or had other tasks) when it was computed
+        perfectLaxity();
+        return result.feasible;
+    }
+
+    /*
+     * stores the exported solution as the best known one of the instance when its cost is below cachedCost
+     * (the cost of the cached solution, Double.MAX_VALUE when there was none). The perfect laxity is computed
+     * again first since a solver may have put other tasks on the cores, and a solution the validator rejects
+     * against the model (a task missing or placed twice, a wrong WCRT, a missed deadline) is never stored.
+     * Returns true if it was stored.
+     * */
+    boolean cacheSolution(SolutionCache cache, String fingerprint, String modelPath, String resultPath, double cachedCost)
+    {
+        perfectLaxity();
+        if (cost() >= cachedCost) {
+            return false;
+        }
+        try {
+            SolutionValidator.Report report = SolutionValidator.validate(SolutionValidator.readModel(modelPath), resultPath);
+            if (!report.isValid()) {
+                System.out.println("Not cached, " + report.problems.size() + " problems: " + report.problems.get(0));
+                return false;
+            }
+            cache.store(fingerprint, resultPath);
+            return true;
+        } catch (IOException | XMLStreamException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // the core with the given ids, null if the platform does not have it (anymore)
+    Core findCore(int mcpId, int coreId)
+    {
+        for (MCP mcp : mcps) {
+            if (mcp.getId() == mcpId) {
+                return mcp.getCore(coreId);
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Seeds the model from a previous solution instead of a random assignation.
+     * The tasks that keep their parameters go back to the core they had, the new tasks, the tasks
+     * that changed (when the previous model is known) and the tasks of a core that disappeared
+     * are placed greedily. Returns the number of tasks that had to be placed.
+     * */
+    int repairAssignation(List<Task> tasks, List<Placement> previous, List<Task> previousTasks)
+    {
+        Map<Integer, Placement> placements = new HashMap<Integer, Placement>();
+        for (Placement placement : previous) {
+            placements.put(placement.getTaskId(), placement);
+        }
+        Map<Integer, Task> oldTasks = new HashMap<Integer, Task>();
+        if (previousTasks != null) {
+            for (Task task : previousTasks) {
+                oldTasks.put(task.getId(), task);
+            }
+        }
+
+        List<Task> pending = new ArrayList<Task>();
+        for (Task task : tasks) {
+            Placement placement = placements.get(task.getId());
+            Core core = placement == null ? null : findCore(placement.getMcpId(), placement.getCoreId());
+            Task old = oldTasks.get(task.getId());
+            boolean changed = old != null && (!old.getWCET().equals(task.getWCET())
+                    || !old.getDeadline().equals(task.getDeadline())
+                    || !old.getPeriod().equals(task.getPeriod()));
+            if (core == null || changed) {
+                pending.add(task);
+            } else {
+                core.addTask(task);
+            }
+        }
+
+        // the most demanding tasks are placed first, while there is still room for them
+        pending.sort(Comparator.comparingDouble((Task t) -> -(double) t.getWCET() / t.getPeriod()));
+        for (Task task : pending) {
+            placeGreedily(task);
+        }
+        return pending.size();
+    }
+
+    /*
+     * adds the task to the core where it costs the least laxity (an unschedulable task counts as the penalty)
+     * */
+    void placeGreedily(Task task)
+    {
+        Core bestCore = null;
+        long bestDelta = Long.MIN_VALUE;
+        for (MCP mcp : mcps) {
+            for (Core core : mcp.getCores()) {
+                int laxity = core.getLaxity();
+                int unschedulable = core.getUnschedulable();
+                core.addTask(task);
+                long delta = (core.getLaxity() - laxity) - (long) penalty * (core.getUnschedulable() - unschedulable);
+                core.removeTaskById(task.getId());
+                if (delta > bestDelta) {
+                    bestDelta = delta;
+                    bestCore = core;
+                }
+            }
+        }
+        bestCore.addTask(task);
+    }
+
+    int unschedulable()
+    {
+        int unschedulable = 0;
+        for (MCP mcp : mcps) {
+            for (Core core : mcp.getCores()) {
+                unschedulable += core.getUnschedulable();
+            }
+        }
+        return unschedulable;
+    }
+
     void printLaxity()
     {
         int totalLaxity = 0;
@@ -247,56 +527,254 @@ public class Algorithms {
         System.out.println("total laxity : "+totalLaxity);
     }
 
+    static void printUsage()
+    {
+        System.out.println("usage: Algorithms [options] model.xml result.xml");
+        System.out.println("  -repair <solution.xml>      start from a previous solution (-previous-model <model.xml>: the model it was for)");
+        System.out.println("  -exact <seconds>            branch and bound instead of the annealing");
+        System.out.println("  -decompose <rounds>         anneal every MCP in its own thread, migrating tasks between rounds");
+        System.out.println("  -gap <fraction>             stop the annealing once all the tasks are schedulable and the laxity is");
+        System.out.println("                              within this fraction of the upper bound (default 0: the bound is rarely");
+        System.out.println("                              reached, the annealing runs its whole schedule)");
+        System.out.println("  -batch <K>                  evaluate K moves in parallel at every step");
+        System.out.println("  -speculate <N>              evaluate N moves ahead once few moves are accepted (same results)");
+        System.out.println("  -pareto <N>                 multi-objective annealing with an archive of N solutions");
+        System.out.println("  -lns <seconds>              large neighbourhood search (-lns-recreate greedy|regret, -lns-accept sa|rrt)");
+        System.out.println("  -cache-dir <dir>            reuse the best known solution of the instance (-cache-size <n>, -cache-warm)");
+        System.out.println("  -jfr                        write a Flight Recorder recording to result.xml.jfr");
+    }
+
     public static void main(String[] args)
     {
     	
-		Algorithms algo = new Algorithms();
 		//call createTasksFromXml to read the tasks
 		String path = "small.xml";
 		String resultPath = "result.xml";
-		if(args.length>=2) {
-			path=args[0];
-			resultPath=args[1];
+		// previous solution (and optionally the model it was computed for) to repair instead of starting over
+		String previousSolution = null;
+		String previousModel = null;
+		// time limit in seconds of the exact solver, 0 to use the annealing
+		int exactTime = 0;
+		// number of rounds of the per-MCP decomposition, 0 to anneal the whole platform at once
+		int decompositionRounds = 0;
+		double gap = 0;
+		// number of moves evaluated in parallel at every step, 0 for the single move annealing
+		int batchSize = 0;
+		// number of moves evaluated ahead in the cold part of the annealing, 0 for none (same results either way)
+		int speculationDepth = 0;
+		// size of the Pareto archive of the multi-objective annealing, 0 for the single objective one
+		int paretoSize = 0;
+		// ruin and recreate search for that many seconds instead of the annealing
+		int lnsTime = 0;
+		String lnsRecreate = "regret";
+		String lnsAccept = "sa";
+		// best known solution of every instance, returned at once (or improved with -cache-warm) when it is there
+		String cacheDir = null;
+		int cacheSize = 100;
+		boolean cacheWarm = false;
+		// records the run with the Flight Recorder, dumped next to the result
+		boolean jfr = false;
+		List<String> positional = new ArrayList<String>();
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+				case "-repair": previousSolution = args[++i]; break;
+				case "-previous-model": previousModel = args[++i]; break;
+				case "-exact": exactTime = Integer.parseInt(args[++i]); break;
+				case "-decompose": decompositionRounds = Integer.parseInt(args[++i]); break;
+				case "-gap": gap = Double.parseDouble(args[++i]); break;
+				case "-batch": batchSize = Integer.parseInt(args[++i]); break;
+				case "-speculate": speculationDepth = Integer.parseInt(args[++i]); break;
+				case "-pareto": paretoSize = Integer.parseInt(args[++i]); break;
+				case "-lns": lnsTime = Integer.parseInt(args[++i]); break;
+				case "-lns-recreate": lnsRecreate = args[++i]; break;
+				case "-lns-accept": lnsAccept = args[++i]; break;
+				case "-cache-dir": cacheDir = args[++i]; break;
+				case "-cache-size": cacheSize = Integer.parseInt(args[++i]); break;
+				case "-cache-warm": cacheWarm = true; break;
+				case "-jfr": jfr = true; break;
+				case "-help": printUsage(); return;
+				default: positional.add(args[i]);
+			}
+		}
+		// the solvers replace each other, only one of them can be chosen
+		int modes = 0;
+		for (int mode : new int[]{exactTime, decompositionRounds, batchSize, speculationDepth, paretoSize, lnsTime}) {
+			if (mode > 0) {
+				modes++;
+			}
+		}
+		if (modes > 1) {
+			System.err.println("-exact, -decompose, -batch, -speculate, -pareto and -lns cannot be combined");
+			printUsage();
+			System.exit(1);
+		}
+		if(positional.size()>=2) {
+			path=positional.get(0);
+			resultPath=positional.get(1);
+		}
+		Recording recording = null;
+		if (jfr) {
+			try {
+				// the profiling settings (method samples, allocations, GC...) plus the events of the solver
+				recording = new Recording(Configuration.getConfiguration("profile"));
+				recording.start();
+			} catch (IOException | ParseException e) {
+				e.printStackTrace();
+			}
 		}
+		Algorithms algo;
+		if (batchSize > 0) {
+			algo = new BatchedAnnealing(batchSize, Runtime.getRuntime().availableProcessors());
+		} else if (paretoSize > 0) {
+			algo = new MultiObjectiveAnnealing(paretoSize);
+		} else if (speculationDepth > 0) {
+			algo = new SpeculativeAnnealing(speculationDepth, Runtime.getRuntime().availableProcessors());
+		} else {
+			algo = new Algorithms();
+		}
+		algo.gap = gap;
+		SolverEvents.Parse parse = new SolverEvents.Parse();
+		parse.begin();
 		List<Task> tasks = Parser.createTasksFromXml(path);
 		// call createMCPsFromXml to read the MCPs
 		algo.mcps = Parser.createMCPsFromXml(path);
-		// assign the tasks to the MCPs
-		algo.initialAssignation(tasks);
+		ScaledWcet.precompute(tasks, algo.mcps);
+		parse.end();
+		if (parse.shouldCommit()) {
+			parse.path = path;
+			parse.tasks = tasks.size();
+			for (MCP mcp : algo.mcps) {
+				parse.cores += mcp.getCores().size();
+			}
+			parse.commit();
+		}
+		SolutionCache cache = null;
+		String fingerprint = null;
+		String cached = null;
+		if (cacheDir != null) {
+			cache = new SolutionCache(cacheDir, cacheSize);
+			fingerprint = SolutionCache.fingerprint(tasks, algo.mcps);
+			cached = cache.lookup(fingerprint);
+			System.out.println("Instance " + fingerprint + (cached == null ? ", not in the cache" : ", cached in " + cached));
+		}
+		double T0=35;
+		double ALPHA=0.90;
+		double BETA=1.1;
+		double BETA0=0.001;
+		int MAXTIME=30000000;
+		SolverEvents.InitialAssignment assignment = new SolverEvents.InitialAssignment();
+		assignment.begin();
+		if (previousSolution != null) {
+			assignment.method = "repair";
+			// start from the previous assignment and only search around it, at a low temperature
+			List<Task> previousTasks = previousModel == null ? null : Parser.createTasksFromXml(previousModel);
+			int placed = algo.repairAssignation(tasks, Parser.createPlacementsFromXml(previousSolution), previousTasks);
+			System.out.println("Repairing " + previousSolution + ", " + placed + " tasks placed again");
+			T0=0.5;
+			BETA0=0.01;
+			MAXTIME=200000;
+		} else if (cached != null) {
+			assignment.method = "cache";
+			// the same instance, every task goes back where it was
+			algo.repairAssignation(tasks, Parser.createPlacementsFromXml(cached), null);
+			T0=0.5;
+			BETA0=0.01;
+			MAXTIME=200000;
+		} else if (exactTime == 0 && decompositionRounds == 0) {
+			assignment.method = "random";
+			// assign the tasks to the MCPs
+			algo.initialAssignation(tasks);
+		}
+		assignment.end();
+		if (assignment.method != null && assignment.shouldCommit()) {
+			assignment.tasks = tasks.size();
+			assignment.commit();
+		}
 		algo.perfectLaxity();
+		algo.laxityBound = LaxityBound.upperBound(tasks, algo.mcps);
+		System.out.println("Upper bound on the total laxity : " + algo.laxityBound);
 		System.out.println("Initial configuration :");
 		algo.printConfig();
 		algo.printLaxity();
 		// start simulated annealing
 		System.out.println("Start of simulated annealing:");
 		
-		double T0=35;
-		double ALPHA=0.90;
-		double BETA=1.1;
-		double BETA0=0.001;
-		int MAXTIME=30000000;
 		long startTime = System.nanoTime(); 
-		algo.simulatedAnnealing(T0, BETA0, MAXTIME, BETA, ALPHA);
+		boolean solved = cached != null && !cacheWarm;
+		// every task is on the cores of the cached solution here, so perfectLaxity is the one of the instance
+		double cachedCost = cached != null ? algo.cost() : Double.MAX_VALUE;
+		if (!solved && exactTime > 0) {
+			solved = algo.solveExactly(tasks, exactTime * 1000L);
+		}
+		if (!solved && decompositionRounds > 0) {
+			DecompositionSolver decomposition = new DecompositionSolver(algo);
+			decomposition.rounds = decompositionRounds;
+			try {
+				decomposition.solve(tasks, T0, BETA0, MAXTIME, BETA, ALPHA);
+				algo.perfectLaxity();
+				solved = true;
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+		if (!solved && lnsTime > 0) {
+			LargeNeighbourhoodSearch lns = new LargeNeighbourhoodSearch(algo);
+			lns.recreate = lnsRecreate.equals("greedy") ? LargeNeighbourhoodSearch.Recreate.GREEDY
+					: LargeNeighbourhoodSearch.Recreate.REGRET;
+			lns.acceptance = lnsAccept.equals("rrt") ? LargeNeighbourhoodSearch.Acceptance.RECORD_TO_RECORD
+					: LargeNeighbourhoodSearch.Acceptance.ANNEALING;
+			lns.solve(Long.MAX_VALUE, lnsTime * 1000L);
+			System.out.println("Large neighbourhood search: " + lns.iterations + " iterations, " + lns.accepted
+					+ " accepted, " + lns.improvements + " improvements");
+			solved = true;
+		}
+		if (!solved) {
+			algo.simulatedAnnealing(T0, BETA0, MAXTIME, BETA, ALPHA);
+		}
 		long endTime = System.nanoTime();
 		
+		algo.recordCoreAnalyses();
+		
+		SolverEvents.Export export = new SolverEvents.Export();
+		export.begin();
 		XMLExport exporter = new XMLExport();
+		exporter.setLaxityBound(algo.laxityBound);
 		
 		for(MCP mcp : algo.mcps) {
 			exporter.addMCP(mcp);
 		}
 		
 		exporter.exportTasksToXML(resultPath);
+		export.end();
+		if (export.shouldCommit()) {
+			export.path = resultPath;
+			for (MCP mcp : algo.mcps) {
+				export.laxity += mcp.getLaxity();
+			}
+			export.commit();
+		}
+		if (cache != null) {
+			algo.cacheSolution(cache, fingerprint, path, resultPath, cachedCost);
+		}
 		algo.printConfig();
 		algo.printLaxity();
 		
-		int unschedulable = 0;
-		for(MCP mcp : algo.mcps) {
-			for(Core core : mcp.getCores()) {
-				unschedulable += core.getUnschedulable();
-			}
-		}
+		int unschedulable = algo.unschedulable();
 		System.out.println("Simulated annealing duration: " + (endTime-startTime) + " on thread: " + Thread.currentThread().getName());
 		System.out.println("number of unchedulable tasks: " + unschedulable + " on thread: " + Thread.currentThread().getName());
+		if (algo instanceof MultiObjectiveAnnealing) {
+			System.out.println("Pareto front:");
+			((MultiObjectiveAnnealing) algo).exportFront(resultPath, algo.laxityBound);
+		}
+		if (recording != null) {
+			try {
+				recording.dump(Paths.get(resultPath + ".jfr"));
+				System.out.println("Flight recording written to " + resultPath + ".jfr");
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			recording.close();
+		}
 		System.out.println("end of algorithm");
     }
 }
@@ -0,0 +1,85 @@
+package algos;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import mcp.Core;
+import mcp.MCP;
+import mcp.Placement;
+import mcp.Task;
+
+import org.junit.Test;
+
+public class AlgorithmsTests {
+
+	// the number of times every task id is on a core
+	static int[] counts(List<MCP> mcps, int size) {
+		int[] counts = new int[size];
+		for (MCP mcp : mcps) {
+			for (Core core : mcp.getCores()) {
+				for (Task task : core.getTasks()) {
+					counts[task.getId()]++;
+				}
+			}
+		}
+		return counts;
+	}
+
+	static void assertAssignedOnce(List<MCP> mcps, int size) {
+		int[] counts = counts(mcps, size);
+		for (int id = 0; id < size; id++) {
+			assertEquals("task " + id, 1, counts[id]);
+		}
+	}
+
+	@Test
+	public void testRepairKeepsPlacements() {
+		List<Task> tasks = SpeculativeAnnealingTests.tasks(3);
+		Algorithms algo = new Algorithms();
+		algo.mcps = SpeculativeAnnealingTests.mcps();
+		List<Placement> previous = new ArrayList<Placement>();
+		for (Task task : tasks) {
+			previous.add(new Placement(task.getId(), task.getId() % 2, task.getId() % 3, 0));
+		}
+		assertEquals(0, algo.repairAssignation(tasks, previous, null));
+		assertAssignedOnce(algo.mcps, tasks.size());
+		for (Task task : tasks) {
+			assertTrue(algo.mcps.get(task.getId() % 2).getCore(task.getId() % 3).getTasks().contains(task));
+		}
+	}
+
+	@Test
+	public void testRepairUnknownTasksAndCores() {
+		List<Task> tasks = SpeculativeAnnealingTests.tasks(3);
+		Algorithms algo = new Algorithms();
+		algo.mcps = SpeculativeAnnealingTests.mcps();
+		List<Placement> previous = new ArrayList<Placement>();
+		previous.add(new Placement(0, 0, 9, 0)); // no core 9
+		previous.add(new Placement(1, 5, 0, 0)); // no MCP 5
+		previous.add(new Placement(2, 1, 1, 0));
+		previous.add(new Placement(2, 1, 2, 0)); // twice, the last one counts
+		previous.add(new Placement(99, 0, 0, 0)); // not in the model
+		// tasks 3.. are not in the previous solution
+		int placed = algo.repairAssignation(tasks, previous, null);
+		assertEquals(tasks.size() - 1, placed);
+		assertAssignedOnce(algo.mcps, tasks.size());
+		assertTrue(algo.mcps.get(1).getCore(2).getTasks().contains(tasks.get(2)));
+	}
+
+	@Test
+	public void testRepairChangedTasks() {
+		List<Task> tasks = SpeculativeAnnealingTests.tasks(3);
+		List<Task> previousTasks = SpeculativeAnnealingTests.tasks(3);
+		previousTasks.get(4).setWCET(previousTasks.get(4).getWCET() + 1);
+		Algorithms algo = new Algorithms();
+		algo.mcps = SpeculativeAnnealingTests.mcps();
+		List<Placement> previous = new ArrayList<Placement>();
+		for (Task task : tasks) {
+			previous.add(new Placement(task.getId(), 0, 0, 0));
+		}
+		assertEquals(1, algo.repairAssignation(tasks, previous, previousTasks));
+		assertAssignedOnce(algo.mcps, tasks.size());
+	}
+}
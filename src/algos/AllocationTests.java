@@ -0,0 +1,67 @@
+package algos;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import mcp.Core;
+import mcp.MCP;
+import mcp.Task;
+
+import org.junit.Test;
+
+public class AllocationTests {
+
+	@Test
+	public void testStepDoesNotAllocate() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+			return; // no allocation counters on this JVM
+		}
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		long thread = Thread.currentThread().getId();
+
+		Algorithms algo = new Algorithms();
+		List<Task> tasks = SpeculativeAnnealingTests.tasks(3);
+		algo.setSeed(11);
+		algo.mcps = SpeculativeAnnealingTests.mcps();
+		algo.initialAssignation(tasks);
+		algo.perfectLaxity();
+
+		// every core holds all the tasks once, so that its lists have grown to their final size
+		// and the scaled WCETs of every task are filled
+		for (MCP mcp : algo.mcps) {
+			for (Core core : mcp.getCores()) {
+				List<Task> own = new ArrayList<Task>(core.getTasks());
+				for (Task task : tasks) {
+					if (!own.contains(task)) {
+						core.addTask(task);
+					}
+				}
+				for (Task task : tasks) {
+					if (!own.contains(task)) {
+						core.removeTaskById(task.getId());
+					}
+				}
+			}
+		}
+
+		// warm-up
+		double cost = algo.cost();
+		for (int i = 0; i < 200000; i++) {
+			cost = algo.step(cost, 5);
+		}
+
+		long before = threads.getThreadAllocatedBytes(thread);
+		long calibration = threads.getThreadAllocatedBytes(thread) - before; // what the measure itself allocates
+		before = threads.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < 1000000; i++) {
+			cost = algo.step(cost, 5);
+		}
+		long allocated = threads.getThreadAllocatedBytes(thread) - before - calibration;
+		assertEquals("bytes allocated by 1M steps", 0, allocated);
+	}
+}
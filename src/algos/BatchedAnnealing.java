@@ -0,0 +1,167 @@
+package algos;
+
+import mcp.Core;
+import mcp.Evaluation;
+import mcp.MCP;
+import mcp.Task;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Simulated annealing where every step proposes a batch of relocations from the same configuration.
+ *
+ * The candidates are drawn like in Algorithms.step (a random task of a random core goes to another
+ * random core), then evaluated concurrently with Core.evaluate, which only reads the two cores
+ * involved. The best candidate of the batch is then accepted or rejected with the usual Metropolis
+ * rule, so at low temperature, where almost every single move is rejected, a step is much more likely
+ * to find an improving one. The rest of the annealing (schedule, stopping) is the one of Algorithms.
+ * */
+public class BatchedAnnealing extends Algorithms {
+
+    private final int batchSize;
+    private final int threads;
+    private ForkJoinPool pool; // only while an annealing runs, the steps outside of one are serial
+
+    // the candidates of the current batch
+    private final Move[] moves;
+    private final Evaluation[] fromEvaluations, toEvaluations;
+
+    // the laxity and unschedulable tasks of the whole configuration, kept up to date by the steps
+    private boolean totalsValid = false;
+    private long totalLaxity;
+    private int totalUnschedulable;
+    private int totalTasks;
+
+    public BatchedAnnealing(int batchSize, int threads) {
+        this.batchSize = batchSize;
+        this.threads = threads;
+        moves = new Move[batchSize];
+        fromEvaluations = new Evaluation[batchSize];
+        toEvaluations = new Evaluation[batchSize];
+        for (int k = 0; k < batchSize; k++) {
+            moves[k] = new Move();
+            fromEvaluations[k] = new Evaluation();
+            toEvaluations[k] = new Evaluation();
+        }
+    }
+
+    private void computeTotals() {
+        totalLaxity = 0;
+        totalUnschedulable = 0;
+        totalTasks = 0;
+        for (MCP mcp : mcps) {
+            for (Core core : mcp.getCores()) {
+                totalLaxity += core.getLaxity();
+                totalUnschedulable += core.getUnschedulable();
+                totalTasks += core.getTasks().size();
+            }
+        }
+        totalsValid = true;
+    }
+
+    @Override
+    long rtaIterations() {
+        long iterations = super.rtaIterations();
+        for (int k = 0; k < batchSize; k++) {
+            iterations += fromEvaluations[k].getRtaIterations() + toEvaluations[k].getRtaIterations();
+        }
+        return iterations;
+    }
+
+    // evaluates the candidates first..last-1, splitting the range between the workers
+    private class EvaluateBatch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int first, last;
+
+        EvaluateBatch(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first == 1) {
+                evaluate(first);
+            } else {
+                int middle = (first + last) >>> 1;
+                invokeAll(new EvaluateBatch(first, middle), new EvaluateBatch(middle, last));
+            }
+        }
+    }
+
+    private void evaluate(int k) {
+        Move move = moves[k];
+        Task task = move.from.getTasks().get(move.index);
+        move.from.evaluate(null, move.index, fromEvaluations[k]);
+        move.to.evaluate(task, -1, toEvaluations[k]);
+    }
+
+    @Override
+    void simulatedAnnealing(double T0, double BETA0, int MAXTIME, double BETA, double ALPHA) {
+        totalsValid = false; // the configuration may have changed since the last annealing
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        try {
+            super.simulatedAnnealing(T0, BETA0, MAXTIME, BETA, ALPHA);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+        }
+    }
+
+    @Override
+    double step(double currentCost, double temperature) {
+        if (!totalsValid) {
+            computeTotals();
+        }
+
+        // we draw the candidates the same way the single move step does
+        for (int k = 0; k < batchSize; k++) {
+            drawMove(moves[k]);
+        }
+        steps += batchSize;
+
+        if (pool == null) {
+            for (int k = 0; k < batchSize; k++) {
+                evaluate(k);
+            }
+        } else {
+            pool.invoke(new EvaluateBatch(0, batchSize));
+        }
+
+        // the best candidate of the batch
+        int best = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        long bestLaxity = 0;
+        int bestUnschedulable = 0;
+        for (int k = 0; k < batchSize; k++) {
+            Move move = moves[k];
+            long laxity = totalLaxity - move.from.getLaxity() - move.to.getLaxity()
+                    + fromEvaluations[k].laxity + toEvaluations[k].laxity;
+            int unschedulable = totalUnschedulable - move.from.getUnschedulable() - move.to.getUnschedulable()
+                    + fromEvaluations[k].unschedulable + toEvaluations[k].unschedulable;
+            double cost = cost(laxity, unschedulable, totalTasks);
+            if (cost < bestCost) {
+                best = k;
+                bestCost = cost;
+                bestLaxity = laxity;
+                bestUnschedulable = unschedulable;
+            }
+        }
+
+        double costDiff = bestCost - currentCost;
+        if (costDiff < 0 || random.nextDouble() < Math.exp(-costDiff / temperature)) {
+            Move move = moves[best];
+            move.to.addTask(move.from.getTaskByIndex(move.index));
+            totalLaxity = bestLaxity;
+            totalUnschedulable = bestUnschedulable;
+            accepted = true;
+            return bestCost;
+        }
+        accepted = false;
+        return currentCost;
+    }
+}
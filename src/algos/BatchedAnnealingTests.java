@@ -0,0 +1,93 @@
+package algos;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import mcp.Core;
+import mcp.Task;
+
+import org.junit.Test;
+
+public class BatchedAnnealingTests {
+
+	// records the candidates of the batches and the cost of each one applied alone to the configuration
+	static class Recording extends BatchedAnnealing {
+		final List<Double> costs = new ArrayList<Double>();
+		final List<Task> tasks = new ArrayList<Task>();
+		final List<Core> targets = new ArrayList<Core>();
+
+		Recording(int batchSize) {
+			super(batchSize, 1);
+		}
+
+		@Override
+		void drawMove(Move move) {
+			super.drawMove(move);
+			// the candidates are all drawn before any of them is applied, so the configuration is the one of the step
+			Task task = move.from.getTaskByIndex(move.index);
+			move.to.addTask(task);
+			costs.add(cost());
+			move.to.removeTaskById(task.getId());
+			move.from.addTask(task);
+			tasks.add(task);
+			targets.add(move.to);
+		}
+	}
+
+	@Test
+	public void testBestCandidateOfTheBatch() {
+		Recording algo = new Recording(4);
+		algo.verbose = false;
+		algo.setSeed(7);
+		algo.mcps = SpeculativeAnnealingTests.mcps();
+		algo.initialAssignation(SpeculativeAnnealingTests.tasks(3));
+		algo.perfectLaxity();
+
+		double cost = algo.cost();
+		int improvements = 0;
+		for (int s = 0; s < 200; s++) {
+			algo.costs.clear();
+			algo.tasks.clear();
+			algo.targets.clear();
+			// at this temperature only a better candidate passes the Metropolis test
+			double newCost = algo.step(cost, 1e-9);
+			assertEquals(4, algo.costs.size());
+			int best = 0;
+			for (int k = 1; k < 4; k++) {
+				if (algo.costs.get(k) < algo.costs.get(best)) {
+					best = k;
+				}
+			}
+			double bestCost = algo.costs.get(best);
+			if (bestCost < cost) {
+				improvements++;
+				assertTrue(algo.accepted);
+				assertEquals(bestCost, newCost, 1e-9);
+				assertTrue(algo.targets.get(best).getTasks().contains(algo.tasks.get(best)));
+			} else if (bestCost > cost) {
+				assertFalse(algo.accepted);
+				assertEquals(cost, newCost, 0);
+			}
+			assertEquals(algo.cost(), newCost, 1e-9);
+			cost = newCost;
+		}
+		assertTrue(improvements > 0);
+	}
+
+	@Test
+	public void testDeterministic() {
+		BatchedAnnealing first = new BatchedAnnealing(4, 1);
+		int[] expected = SpeculativeAnnealingTests.anneal(first, 50000);
+		BatchedAnnealing second = new BatchedAnnealing(4, 1);
+		assertArrayEquals(expected, SpeculativeAnnealingTests.anneal(second, 50000));
+		assertEquals(first.steps, second.steps);
+		assertEquals(first.cost(), second.cost(), 0);
+
+		// the candidates are evaluated in parallel but chosen in order, so the threads change nothing
+		BatchedAnnealing parallel = new BatchedAnnealing(4, 4);
+		assertArrayEquals(expected, SpeculativeAnnealingTests.anneal(parallel, 50000));
+		assertEquals(first.steps, parallel.steps);
+	}
+}
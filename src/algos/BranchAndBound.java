@@ -0,0 +1,272 @@
+package algos;
+
+import mcp.Core;
+import mcp.MCP;
+import mcp.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Exact solver: maximizes the total laxity over the assignments where every task meets its deadline.
+ *
+ * The tasks are assigned one by one in decreasing utilization order, a node is pruned
+ *  - as soon as a core misses a deadline (adding tasks to a core never makes it schedulable again)
+ *  - when its optimistic bound is not better than the best solution found so far. The bound is the
+ *    current laxity of the cores (it can only go down) plus, for every task still to place, its laxity
+ *    without any interference on the fastest core.
+ * Cores with the same WCETFactor are interchangeable, so a task only goes to the first empty core of
+ * its factor class. The top of the tree is split into subtrees that run on a fork/join pool, every
+ * subtree works on its own copy of the cores and the tasks.
+ * If the time limit is hit, the best bound of the unexplored nodes gives the optimality gap.
+ * */
+public class BranchAndBound {
+
+    private final Task[] tasks; // in decreasing utilization order
+    private final Core[] cores; // all the cores of all the MCPs
+    private final int[] factorClass; // cores with the same WCETFactor share a class
+    private final long[] optimistic; // optimistic[d] = best possible laxity of the tasks d..n-1
+    private final int splitDepth;
+
+    private final AtomicLong bestLaxity = new AtomicLong(Long.MIN_VALUE);
+    private int[] bestAssignment;
+    private final LongAccumulator openBound = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    private final LongAdder nodes = new LongAdder();
+    private long deadline;
+
+    // the outcome of solve
+    public static class Result {
+        public boolean feasible;
+        public boolean optimal;
+        public long laxity;
+        public long bound; // upper bound on the optimal total laxity
+        public long nodes;
+
+        public double gap() {
+            if (!feasible) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return bound == 0 ? 0 : (double) (bound - laxity) / Math.abs(bound);
+        }
+    }
+
+    public BranchAndBound(List<Task> tasks, List<MCP> mcps) {
+        this.tasks = tasks.toArray(new Task[0]);
+        Arrays.sort(this.tasks, Comparator.comparingDouble((Task t) -> -(double) t.getWCET() / t.getPeriod())
+                .thenComparing(Task::getId));
+
+        List<Core> allCores = new ArrayList<Core>();
+        for (MCP mcp : mcps) {
+            allCores.addAll(mcp.getCores());
+        }
+        cores = allCores.toArray(new Core[0]);
+
+        double minFactor = Double.POSITIVE_INFINITY;
+        factorClass = new int[cores.length];
+        for (int c = 0; c < cores.length; c++) {
+            minFactor = Math.min(minFactor, cores[c].getWCETFactor());
+            factorClass[c] = c;
+            for (int k = 0; k < c; k++) {
+                if (cores[k].getWCETFactor() == cores[c].getWCETFactor()) {
+                    factorClass[c] = factorClass[k];
+                    break;
+                }
+            }
+        }
+
+        optimistic = new long[this.tasks.length + 1];
+        for (int d = this.tasks.length - 1; d >= 0; d--) {
+            Task task = this.tasks[d];
+            optimistic[d] = optimistic[d + 1] + task.getDeadline() - (long) Math.ceil(task.getWCET() * minFactor);
+        }
+
+        // we split the tree until there are enough subtrees to keep all the workers busy
+        int parallelism = ForkJoinPool.commonPool().getParallelism();
+        int depth = 0;
+        double subtrees = 1;
+        while (subtrees < 8 * parallelism && depth < this.tasks.length) {
+            subtrees *= Math.max(2, cores.length / 2);
+            depth++;
+        }
+        splitDepth = depth;
+    }
+
+    /*
+     * the working copy of the cores and tasks used by one subtree
+     * */
+    private class State {
+        Core[] cores = new Core[BranchAndBound.this.cores.length];
+        Task[] tasks = new Task[BranchAndBound.this.tasks.length];
+        int[] assignment = new int[BranchAndBound.this.tasks.length];
+        long[] coreLaxity = new long[cores.length];
+        long laxity = 0;
+
+        State(int[] prefix, int depth) {
+            for (int c = 0; c < cores.length; c++) {
+                cores[c] = new Core(c, BranchAndBound.this.cores[c].getWCETFactor());
+            }
+            for (int t = 0; t < tasks.length; t++) {
+                Task task = BranchAndBound.this.tasks[t];
+                tasks[t] = task.copy();
+            }
+            for (int d = 0; d < depth; d++) {
+                assignment[d] = prefix[d];
+                cores[prefix[d]].addTask(tasks[d]);
+            }
+            for (int c = 0; c < cores.length; c++) {
+                coreLaxity[c] = cores[c].getLaxity();
+                laxity += coreLaxity[c];
+            }
+        }
+
+        // the bound of every feasible child of the node at this depth, best first, as {core, bound}
+        List<long[]> children(int depth) {
+            List<long[]> children = new ArrayList<long[]>();
+            Task task = tasks[depth];
+            boolean[] emptyClassSeen = new boolean[cores.length];
+            for (int c = 0; c < cores.length; c++) {
+                if (cores[c].getTasks().isEmpty()) {
+                    // symmetry breaking, only the first empty core of a factor class is tried
+                    if (emptyClassSeen[factorClass[c]]) {
+                        continue;
+                    }
+                    emptyClassSeen[factorClass[c]] = true;
+                }
+                cores[c].addTask(task);
+                if (cores[c].getUnschedulable() == 0) {
+                    long bound = laxity - coreLaxity[c] + cores[c].getLaxity() + optimistic[depth + 1];
+                    children.add(new long[]{c, bound});
+                }
+                cores[c].removeTaskById(task.getId());
+            }
+            children.sort((a, b) -> Long.compare(b[1], a[1]));
+            return children;
+        }
+
+        void assign(int depth, int c) {
+            assignment[depth] = c;
+            cores[c].addTask(tasks[depth]);
+            laxity -= coreLaxity[c];
+            coreLaxity[c] = cores[c].getLaxity();
+            laxity += coreLaxity[c];
+        }
+
+        void unassign(int depth, int c) {
+            cores[c].removeTaskById(tasks[depth].getId());
+            laxity -= coreLaxity[c];
+            coreLaxity[c] = cores[c].getLaxity();
+            laxity += coreLaxity[c];
+        }
+    }
+
+    private boolean timeUp() {
+        return System.nanoTime() > deadline;
+    }
+
+    private void foundSolution(State state) {
+        synchronized (this) {
+            if (state.laxity > bestLaxity.get()) {
+                bestAssignment = state.assignment.clone();
+                bestLaxity.set(state.laxity);
+            }
+        }
+    }
+
+    // sequential depth first search below the current node of the state
+    private void search(State state, int depth) {
+        nodes.increment();
+        if (depth == tasks.length) {
+            foundSolution(state);
+            return;
+        }
+        long bound = state.laxity + optimistic[depth];
+        if (timeUp()) {
+            openBound.accumulate(bound);
+            return;
+        }
+        if (bound <= bestLaxity.get()) {
+            return;
+        }
+        for (long[] child : state.children(depth)) {
+            if (child[1] <= bestLaxity.get()) {
+                break; // the children are sorted, none of the next ones can be better
+            }
+            if (timeUp()) {
+                openBound.accumulate(child[1]);
+                continue;
+            }
+            int c = (int) child[0];
+            state.assign(depth, c);
+            search(state, depth + 1);
+            state.unassign(depth, c);
+        }
+    }
+
+    // the top of the tree, every child becomes a fork/join task with its own state
+    private class Subtree extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] prefix;
+        private final int depth;
+
+        Subtree(int[] prefix, int depth) {
+            this.prefix = prefix;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            State state = new State(prefix, depth);
+            if (depth >= splitDepth || depth == tasks.length) {
+                search(state, depth);
+                return;
+            }
+            nodes.increment();
+            List<Subtree> subtrees = new ArrayList<Subtree>();
+            for (long[] child : state.children(depth)) {
+                int[] childPrefix = Arrays.copyOf(prefix, depth + 1);
+                childPrefix[depth] = (int) child[0];
+                subtrees.add(new Subtree(childPrefix, depth + 1));
+            }
+            invokeAll(subtrees);
+        }
+    }
+
+    /*
+     * runs the search for at most timeLimit ms
+     * */
+    public Result solve(long timeLimit) {
+        deadline = System.nanoTime() + timeLimit * 1000000L;
+        ForkJoinPool.commonPool().invoke(new Subtree(new int[0], 0));
+
+        Result result = new Result();
+        result.nodes = nodes.sum();
+        result.feasible = bestAssignment != null;
+        result.laxity = bestLaxity.get();
+        result.optimal = openBound.get() == Long.MIN_VALUE || openBound.get() <= result.laxity;
+        result.bound = result.optimal ? result.laxity : openBound.get();
+        return result;
+    }
+
+    /*
+     * puts the tasks on the cores of the best assignment found, in place of the tasks they had
+     * */
+    public void apply() {
+        for (Core core : cores) {
+            core.clearTasks();
+        }
+        for (int d = 0; d < tasks.length; d++) {
+            cores[bestAssignment[d]].addTask(tasks[d]);
+        }
+        for (Core core : cores) {
+            core.calcWCRT();
+        }
+    }
+}
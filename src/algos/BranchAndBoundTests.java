@@ -0,0 +1,127 @@
+package algos;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import mcp.Core;
+import mcp.MCP;
+import mcp.Placement;
+import mcp.Task;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class BranchAndBoundTests {
+
+	List<Task> tasks;
+	List<MCP> mcps;
+
+	@Before
+	public void setUp() throws Exception {
+		tasks = new ArrayList<Task>();
+		tasks.add(new Task(0, 840, 4000L, 4000L));
+		tasks.add(new Task(1, 3200, 8000L, 8000L));
+		tasks.add(new Task(2, 260, 1000L, 1000L));
+		tasks.add(new Task(3, 1247, 4000L, 4000L));
+		tasks.add(new Task(4, 192, 1000L, 1000L));
+		tasks.add(new Task(5, 240, 500L, 500L));
+
+		mcps = new ArrayList<MCP>();
+		MCP mcp0 = new MCP(0);
+		mcp0.addCore(new Core(0, 1.1));
+		mcp0.addCore(new Core(1, 1.3));
+		MCP mcp1 = new MCP(1);
+		mcp1.addCore(new Core(0, 1.1));
+		mcp1.addCore(new Core(1, 0.9));
+		mcps.add(mcp0);
+		mcps.add(mcp1);
+	}
+
+	// best total laxity over all the schedulable assignments, by enumeration
+	long bruteForce(int t, List<Core> cores) {
+		if (t == tasks.size()) {
+			long laxity = 0;
+			for (Core core : cores) {
+				if (core.getUnschedulable() > 0) {
+					return Long.MIN_VALUE;
+				}
+				laxity += core.getLaxity();
+			}
+			return laxity;
+		}
+		long best = Long.MIN_VALUE;
+		for (Core core : cores) {
+			core.addTask(tasks.get(t));
+			best = Math.max(best, bruteForce(t + 1, cores));
+			core.removeTaskById(tasks.get(t).getId());
+		}
+		return best;
+	}
+
+	@Test
+	public void testOptimal() {
+		List<Core> cores = new ArrayList<Core>();
+		for (MCP mcp : mcps) {
+			cores.addAll(mcp.getCores());
+		}
+		long expected = bruteForce(0, cores);
+
+		BranchAndBound exact = new BranchAndBound(tasks, mcps);
+		BranchAndBound.Result result = exact.solve(60000);
+		assertTrue(result.feasible);
+		assertTrue(result.optimal);
+		assertEquals(expected, result.laxity);
+		assertEquals(0, result.gap(), 0);
+
+		exact.apply();
+		long laxity = 0;
+		for (Core core : cores) {
+			assertEquals(0, core.getUnschedulable());
+			laxity += core.getLaxity();
+		}
+		assertEquals(expected, laxity);
+	}
+
+	// a repaired assignment is on the cores before the exact solver runs
+	static Algorithms repaired(List<Task> tasks, List<MCP> mcps) {
+		Algorithms algo = new Algorithms();
+		algo.verbose = false;
+		algo.mcps = mcps;
+		List<Placement> previous = new ArrayList<Placement>();
+		for (Task task : tasks) {
+			previous.add(new Placement(task.getId(), 0, 0, 0));
+		}
+		algo.repairAssignation(tasks, previous, null);
+		algo.perfectLaxity();
+		return algo;
+	}
+
+	@Test
+	public void testExactAfterRepair() {
+		Algorithms algo = repaired(tasks, mcps);
+		assertTrue(algo.solveExactly(tasks, 60000));
+		AlgorithmsTests.assertAssignedOnce(mcps, tasks.size());
+
+		long perfect = 0;
+		for (Task task : tasks) {
+			perfect += task.getDeadline() - task.getWCET();
+		}
+		long laxity = 0;
+		for (MCP mcp : mcps) {
+			laxity += mcp.getLaxity();
+		}
+		// the cost is measured from the perfect laxity of the tasks now on the cores
+		assertEquals((double) (perfect - laxity) / tasks.size(), algo.cost(), 1e-9);
+	}
+
+	@Test
+	public void testFallbackAfterRepair() {
+		// a task that fits on no core
+		tasks.add(new Task(6, 900, 500L, 500L));
+		Algorithms algo = repaired(tasks, mcps);
+		assertFalse(algo.solveExactly(tasks, 10000));
+		AlgorithmsTests.assertAssignedOnce(mcps, tasks.size());
+	}
+}
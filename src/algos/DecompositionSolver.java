@@ -0,0 +1,209 @@
+package algos;
+
+import mcp.Core;
+import mcp.MCP;
+import mcp.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Solves the problem MCP by MCP.
+ *
+ * First the tasks are split across the MCPs by a greedy load balancing on their utilization (the
+ * heaviest task goes to the MCP with the lowest relative load). Then every MCP is annealed on its own,
+ * in parallel, since the cores of two MCPs never share state. Between the rounds of annealing, a few
+ * tasks migrate from the worst MCP (highest cost) to the best one, the migration is kept only if it
+ * improves the total.
+ * */
+public class DecompositionSolver {
+
+    private final Algorithms algo; // the whole platform
+    private final List<Algorithms> parts = new ArrayList<Algorithms>(); // one annealing per MCP
+    int rounds = 10;
+    int migrationSize = 2; // number of tasks moved at every migration
+    int threads = Runtime.getRuntime().availableProcessors();
+
+    public DecompositionSolver(Algorithms algo) {
+        this.algo = algo;
+        for (int i = 0; i < algo.mcps.size(); i++) {
+            Algorithms part = new Algorithms();
+            part.verbose = false;
+            part.penalty = algo.penalty;
+            part.setSeed(algo.random.nextLong());
+            part.mcps = new ArrayList<MCP>(Collections.singletonList(algo.mcps.get(i)));
+            parts.add(part);
+        }
+    }
+
+    // number of moves tried by all the MCPs
+    long steps() {
+        long steps = 0;
+        for (Algorithms part : parts) {
+            steps += part.steps;
+        }
+        return steps;
+    }
+
+    /*
+     * greedy load balancing of the tasks on the MCPs, an MCP with fast cores (small WCETFactor) takes more load.
+     * It replaces the tasks already on the cores (a repaired or cached assignment).
+     * */
+    void partition(List<Task> tasks) {
+        algo.clearAssignation();
+        double[] capacity = new double[parts.size()];
+        double[] load = new double[parts.size()];
+        List<List<Task>> assigned = new ArrayList<List<Task>>();
+        for (int i = 0; i < parts.size(); i++) {
+            for (Core core : algo.mcps.get(i).getCores()) {
+                capacity[i] += 1.0 / core.getWCETFactor();
+            }
+            assigned.add(new ArrayList<Task>());
+        }
+
+        List<Task> sorted = new ArrayList<Task>(tasks);
+        sorted.sort(Comparator.comparingDouble((Task t) -> -(double) t.getWCET() / t.getPeriod()));
+        for (Task task : sorted) {
+            int best = 0;
+            for (int i = 1; i < parts.size(); i++) {
+                if (load[i] / capacity[i] < load[best] / capacity[best]) {
+                    best = i;
+                }
+            }
+            load[best] += (double) task.getWCET() / task.getPeriod();
+            assigned.get(best).add(task);
+        }
+
+        for (int i = 0; i < parts.size(); i++) {
+            parts.get(i).initialAssignation(assigned.get(i));
+            parts.get(i).perfectLaxity();
+        }
+    }
+
+    private static int taskCount(Algorithms part) {
+        int tasks = 0;
+        for (Core core : part.mcps.get(0).getCores()) {
+            tasks += core.getTasks().size();
+        }
+        return tasks;
+    }
+
+    // an MCP without tasks is the best place to send some
+    private static double partCost(Algorithms part) {
+        return taskCount(part) == 0 ? Double.NEGATIVE_INFINITY : part.cost();
+    }
+
+    // laxity of a part, an unschedulable task counts as minus the penalty
+    private long score(Algorithms part) {
+        long laxity = 0;
+        for (MCP mcp : part.mcps) {
+            laxity += mcp.getLaxity();
+        }
+        return laxity - (long) algo.penalty * part.unschedulable();
+    }
+
+    /*
+     * moves migrationSize tasks from the worst part to the best one, the tasks that leave are the lowest
+     * priority tasks of the core with the smallest laxity. The migration is undone if the total gets worse.
+     * */
+    boolean migrate() {
+        Algorithms worst = null, best = null;
+        for (Algorithms part : parts) {
+            if (part.mcps.get(0).getCores().isEmpty()) {
+                continue;
+            }
+            if (taskCount(part) > 0 && (worst == null || part.cost() > worst.cost())) {
+                worst = part;
+            }
+            if (best == null || partCost(part) < partCost(best)) {
+                best = part;
+            }
+        }
+        if (worst == null || worst == best) {
+            return false;
+        }
+
+        long before = score(worst) + score(best);
+        List<Task> moved = new ArrayList<Task>();
+        List<Core> origins = new ArrayList<Core>();
+        for (int k = 0; k < migrationSize; k++) {
+            Core origin = null;
+            for (Core core : worst.mcps.get(0).getCores()) {
+                if (!core.getTasks().isEmpty() && (origin == null || core.getLaxity() < origin.getLaxity())) {
+                    origin = core;
+                }
+            }
+            if (origin == null) {
+                break;
+            }
+            Task task = origin.getTasks().get(origin.getTasks().size() - 1);
+            origin.removeTaskById(task.getId());
+            best.placeGreedily(task);
+            moved.add(task);
+            origins.add(origin);
+        }
+
+        if (score(worst) + score(best) < before) {
+            for (int k = moved.size() - 1; k >= 0; k--) {
+                Task task = moved.get(k);
+                for (Core core : best.mcps.get(0).getCores()) {
+                    if (core.getTasks().contains(task)) {
+                        core.removeTaskById(task.getId());
+                        break;
+                    }
+                }
+                origins.get(k).addTask(task);
+            }
+            return false;
+        }
+        worst.perfectLaxity();
+        best.perfectLaxity();
+        return true;
+    }
+
+    /*
+     * the annealing of every MCP runs for MAXTIME/(rounds * #MCPs) steps per round, the next round
+     * continues from the temperature where the previous one stopped
+     * */
+    public void solve(List<Task> tasks, double T0, double BETA0, int MAXTIME, double BETA, double ALPHA) throws Exception {
+        partition(tasks);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, parts.size())));
+        try {
+            // the steps of the whole platform are shared between the MCPs and the rounds
+            final int budget = Math.max(1, MAXTIME / (rounds * parts.size()));
+            double[] temperatures = new double[parts.size()];
+            Arrays.fill(temperatures, T0);
+            for (int round = 0; round < rounds; round++) {
+                List<Future<?>> futures = new ArrayList<Future<?>>();
+                for (int i = 0; i < parts.size(); i++) {
+                    final Algorithms part = parts.get(i);
+                    final double temperature = temperatures[i];
+                    // a step needs two cores and at least one task to move
+                    if (part.mcps.get(0).getCores().size() < 2 || taskCount(part) == 0) {
+                        futures.add(null);
+                        continue;
+                    }
+                    futures.add(pool.submit(() -> part.simulatedAnnealing(temperature, BETA0, budget, BETA, ALPHA)));
+                }
+                for (int i = 0; i < parts.size(); i++) {
+                    if (futures.get(i) != null) {
+                        futures.get(i).get();
+                        temperatures[i] = parts.get(i).finalTemperature;
+                    }
+                }
+                boolean migrated = migrate();
+                if (algo.verbose) {
+                    System.out.format("round %d out of %d, migration %s\n", round + 1, rounds, migrated ? "kept" : "undone");
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
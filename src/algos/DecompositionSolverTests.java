@@ -0,0 +1,25 @@
+package algos;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import mcp.Task;
+
+import org.junit.Test;
+
+public class DecompositionSolverTests {
+
+	@Test
+	public void testAfterRepair() throws Exception {
+		List<Task> tasks = SpeculativeAnnealingTests.tasks(3);
+		// every task is already on a core, like after -repair or a warm cache hit
+		Algorithms algo = BranchAndBoundTests.repaired(tasks, SpeculativeAnnealingTests.mcps());
+		algo.setSeed(7);
+		DecompositionSolver decomposition = new DecompositionSolver(algo);
+		decomposition.rounds = 2;
+		decomposition.threads = 2;
+		decomposition.solve(tasks, 35, 0.001, 20000, 1.1, 0.90);
+		AlgorithmsTests.assertAssignedOnce(algo.mcps, tasks.size());
+	}
+}
@@ -0,0 +1,464 @@
+package algos;
+
+import mcp.Core;
+import mcp.Evaluation;
+import mcp.MCP;
+import mcp.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Ruin and recreate search, for the cases where several tasks have to move together (a single
+ * relocation of the annealing makes things worse before they get better).
+ *
+ * Every iteration removes some tasks from their cores (ruin) and inserts them back (recreate):
+ *  - ruin: random tasks, tasks related by their period (a random task and the ones with the
+ *    closest periods), or all the tasks of the worst core (the one with the most unschedulable
+ *    tasks, then the one that loses the most laxity to interference), chosen at random
+ *  - recreate: greedy (the most demanding task first, each on the core where it costs the least)
+ *    or regret-2 (the task whose best core is the most ahead of its second best goes first)
+ * The insertion of a task on a core is evaluated with Core.evaluate without touching the core, the
+ * evaluations of all the (task, core) pairs run on a fork/join pool. After an insertion only the
+ * column of the core that changed is evaluated again.
+ * The new solution is accepted like in the annealing (with a temperature going down geometrically over
+ * the budget) or by record-to-record travel (when it is within a deviation of the best one).
+ * The best solution found is put back on the cores at the end.
+ * */
+public class LargeNeighbourhoodSearch {
+
+    enum Recreate { GREEDY, REGRET }
+    enum Acceptance { ANNEALING, RECORD_TO_RECORD }
+
+    private final Algorithms algo;
+    private final Core[] cores;
+    private final Task[] tasks;
+    private final int[] coreOf; // the core index of every task
+
+    // the laxity and unschedulable tasks of every core, kept up to date
+    private final long[] coreLaxity;
+    private final int[] coreUnschedulable;
+    private long totalLaxity;
+    private int totalUnschedulable;
+
+    Recreate recreate = Recreate.REGRET;
+    Acceptance acceptance = Acceptance.ANNEALING;
+    int minRuin = 2;
+    int maxRuin; // default: a tenth of the tasks, at least 3
+    double startTemperature = 5;
+    double endTemperature = 0.05;
+    double deviation = 0.01; // record-to-record: relative distance to the best cost accepted
+    int threads = Runtime.getRuntime().availableProcessors();
+    int eventIterations = 100; // iterations per SearchIterations event
+
+    // statistics
+    long iterations = 0;
+    long accepted = 0;
+    long improvements = 0;
+
+    // the tasks being recreated, and the evaluation of each on each core
+    private final int[] pending;
+    private int pendingCount;
+    private final Evaluation[][] evaluations;
+    private final int[] removedFrom; // the core every ruined task was on, to undo a rejected iteration
+    private final int[] ruined;
+    private int ruinedCount;
+    private ForkJoinPool pool; // only while solve runs
+
+    public LargeNeighbourhoodSearch(Algorithms algo) {
+        this.algo = algo;
+        List<Core> allCores = new ArrayList<Core>();
+        List<Task> allTasks = new ArrayList<Task>();
+        for (MCP mcp : algo.mcps) {
+            for (Core core : mcp.getCores()) {
+                allCores.add(core);
+                allTasks.addAll(core.getTasks());
+            }
+        }
+        cores = allCores.toArray(new Core[0]);
+        tasks = allTasks.toArray(new Task[0]);
+        coreOf = new int[tasks.length];
+        for (int c = 0, t = 0; c < cores.length; c++) {
+            for (int k = 0; k < cores[c].getTasks().size(); k++, t++) {
+                coreOf[t] = c;
+            }
+        }
+        coreLaxity = new long[cores.length];
+        coreUnschedulable = new int[cores.length];
+        maxRuin = Math.max(3, tasks.length / 10);
+
+        pending = new int[tasks.length];
+        ruined = new int[tasks.length];
+        removedFrom = new int[tasks.length];
+        evaluations = new Evaluation[tasks.length][cores.length];
+        for (int c = 0; c < cores.length; c++) {
+            for (int t = 0; t < tasks.length; t++) {
+                evaluations[t][c] = new Evaluation();
+            }
+        }
+    }
+
+    // the fixed point iterations of the analyses of the cores and of the evaluated insertions so far
+    long rtaIterations() {
+        long iterations = 0;
+        for (int c = 0; c < cores.length; c++) {
+            iterations += cores[c].getRtaIterations();
+            for (int t = 0; t < tasks.length; t++) {
+                iterations += evaluations[t][c].getRtaIterations();
+            }
+        }
+        return iterations;
+    }
+
+    private void computeTotals() {
+        totalLaxity = 0;
+        totalUnschedulable = 0;
+        for (int c = 0; c < cores.length; c++) {
+            coreLaxity[c] = cores[c].getLaxity();
+            coreUnschedulable[c] = cores[c].getUnschedulable();
+            totalLaxity += coreLaxity[c];
+            totalUnschedulable += coreUnschedulable[c];
+        }
+    }
+
+    private double currentCost() {
+        return algo.cost(totalLaxity, totalUnschedulable, tasks.length);
+    }
+
+    private void updateCore(int c) {
+        totalLaxity -= coreLaxity[c];
+        totalUnschedulable -= coreUnschedulable[c];
+        coreLaxity[c] = cores[c].getLaxity();
+        coreUnschedulable[c] = cores[c].getUnschedulable();
+        totalLaxity += coreLaxity[c];
+        totalUnschedulable += coreUnschedulable[c];
+    }
+
+    private void remove(int t) {
+        int c = coreOf[t];
+        cores[c].removeTaskById(tasks[t].getId());
+        updateCore(c);
+        ruined[ruinedCount] = t;
+        removedFrom[ruinedCount] = c;
+        ruinedCount++;
+        pending[pendingCount++] = t;
+    }
+
+    private boolean isRuined(int t) {
+        for (int k = 0; k < ruinedCount; k++) {
+            if (ruined[k] == t) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //// ruin
+
+    void ruinRandom(int size) {
+        while (ruinedCount < size) {
+            int t = (int) (algo.random.nextDouble() * tasks.length);
+            if (!isRuined(t)) {
+                remove(t);
+            }
+        }
+    }
+
+    // a random task and the ones with the closest periods (in ratio)
+    void ruinRelated(int size) {
+        int seed = (int) (algo.random.nextDouble() * tasks.length);
+        double period = tasks[seed].getPeriod();
+        Integer[] order = new Integer[tasks.length];
+        double[] distance = new double[tasks.length];
+        for (int t = 0; t < tasks.length; t++) {
+            order[t] = t;
+            // the random part breaks the ties between the many tasks with the same period
+            distance[t] = Math.abs(Math.log(tasks[t].getPeriod() / period)) + 1e-3 * algo.random.nextDouble();
+        }
+        distance[seed] = -1;
+        Arrays.sort(order, Comparator.comparingDouble((Integer t) -> distance[t]));
+        for (int k = 0; k < size; k++) {
+            remove(order[k]);
+        }
+    }
+
+    // all the tasks of the worst core
+    void ruinWorstCore() {
+        int worst = -1;
+        long worstLoss = Long.MIN_VALUE;
+        for (int c = 0; c < cores.length; c++) {
+            if (cores[c].getTasks().isEmpty()) {
+                continue;
+            }
+            // the laxity lost to interference
+            long loss = -coreLaxity[c];
+            for (Task task : cores[c].getTasks()) {
+                loss += task.getDeadline() - task.getCeilWcet(cores[c].getFactorSlot());
+            }
+            if (worst < 0 || coreUnschedulable[c] > coreUnschedulable[worst]
+                    || (coreUnschedulable[c] == coreUnschedulable[worst] && loss > worstLoss)) {
+                worst = c;
+                worstLoss = loss;
+            }
+        }
+        for (int t = 0; t < tasks.length; t++) {
+            if (coreOf[t] == worst) {
+                remove(t);
+            }
+        }
+    }
+
+    //// recreate
+
+    // evaluates the pending tasks first..last-1 (in pairs task * cores + core) on their cores
+    private class EvaluatePairs extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int first, last, onlyCore;
+
+        EvaluatePairs(int first, int last, int onlyCore) {
+            this.first = first;
+            this.last = last;
+            this.onlyCore = onlyCore;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first <= 4) {
+                for (int pair = first; pair < last; pair++) {
+                    evaluatePair(pair, onlyCore);
+                }
+            } else {
+                int middle = (first + last) >>> 1;
+                invokeAll(new EvaluatePairs(first, middle, onlyCore), new EvaluatePairs(middle, last, onlyCore));
+            }
+        }
+    }
+
+    // pair is p * cores + c, or just p when onlyCore >= 0
+    private void evaluatePair(int pair, int onlyCore) {
+        int p = onlyCore >= 0 ? pair : pair / cores.length;
+        int c = onlyCore >= 0 ? onlyCore : pair % cores.length;
+        int t = pending[p];
+        cores[c].evaluate(tasks[t], -1, evaluations[t][c]);
+    }
+
+    // evaluates every pending task on every core (onlyCore < 0) or on one core
+    private void evaluatePending(int onlyCore) {
+        int pairs = onlyCore >= 0 ? pendingCount : pendingCount * cores.length;
+        if (pool == null) {
+            for (int pair = 0; pair < pairs; pair++) {
+                evaluatePair(pair, onlyCore);
+            }
+        } else {
+            pool.invoke(new EvaluatePairs(0, pairs, onlyCore));
+        }
+    }
+
+    // what inserting the pending task t on core c changes, laxity gained minus the penalty
+    private long gain(int t, int c) {
+        Evaluation evaluation = evaluations[t][c];
+        return (evaluation.laxity - coreLaxity[c]) - (long) algo.penalty * (evaluation.unschedulable - coreUnschedulable[c]);
+    }
+
+    private void insert(int p, int c) {
+        int t = pending[p];
+        cores[c].addTask(tasks[t]);
+        coreOf[t] = c;
+        updateCore(c);
+        // keeps the order of the remaining tasks
+        System.arraycopy(pending, p + 1, pending, p, pendingCount - p - 1);
+        pendingCount--;
+    }
+
+    void recreateGreedy() {
+        // the most demanding tasks first
+        Integer[] order = new Integer[pendingCount];
+        for (int p = 0; p < pendingCount; p++) {
+            order[p] = pending[p];
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer t) -> -(double) tasks[t].getWCET() / tasks[t].getPeriod()));
+        for (int p = 0; p < pendingCount; p++) {
+            pending[p] = order[p];
+        }
+        evaluatePending(-1);
+        while (pendingCount > 0) {
+            int t = pending[0];
+            int best = 0;
+            for (int c = 1; c < cores.length; c++) {
+                if (gain(t, c) > gain(t, best)) {
+                    best = c;
+                }
+            }
+            insert(0, best);
+            if (pendingCount > 0) {
+                evaluatePending(best);
+            }
+        }
+    }
+
+    void recreateRegret() {
+        evaluatePending(-1);
+        while (pendingCount > 0) {
+            int bestTask = -1, bestCore = -1;
+            long bestRegret = Long.MIN_VALUE, bestGain = Long.MIN_VALUE;
+            for (int p = 0; p < pendingCount; p++) {
+                int t = pending[p];
+                long first = Long.MIN_VALUE, second = Long.MIN_VALUE;
+                int firstCore = -1;
+                for (int c = 0; c < cores.length; c++) {
+                    long gain = gain(t, c);
+                    if (gain > first) {
+                        second = first;
+                        first = gain;
+                        firstCore = c;
+                    } else if (gain > second) {
+                        second = gain;
+                    }
+                }
+                long regret = second == Long.MIN_VALUE ? Long.MAX_VALUE : first - second;
+                if (regret > bestRegret || (regret == bestRegret && first > bestGain)) {
+                    bestRegret = regret;
+                    bestGain = first;
+                    bestTask = p;
+                    bestCore = firstCore;
+                }
+            }
+            insert(bestTask, bestCore);
+            if (pendingCount > 0) {
+                evaluatePending(bestCore);
+            }
+        }
+    }
+
+    // puts the ruined tasks back where they were
+    private void undo() {
+        for (int k = 0; k < ruinedCount; k++) {
+            int t = ruined[k];
+            if (coreOf[t] != removedFrom[k]) {
+                cores[coreOf[t]].removeTaskById(tasks[t].getId());
+                updateCore(coreOf[t]);
+                cores[removedFrom[k]].addTask(tasks[t]);
+                coreOf[t] = removedFrom[k];
+                updateCore(removedFrom[k]);
+            }
+        }
+    }
+
+    // puts every task on the core of the assignment
+    private void restore(int[] assignment) {
+        for (Core core : cores) {
+            core.clearTasks();
+        }
+        for (int t = 0; t < tasks.length; t++) {
+            coreOf[t] = assignment[t];
+            cores[assignment[t]].addTask(tasks[t]);
+        }
+        computeTotals();
+    }
+
+    private void commit(SolverEvents.SearchIterations block, long blockIterations, long blockAccepted, long blockRta,
+                        double bestCost, double currentCost) {
+        block.end();
+        if (block.shouldCommit()) {
+            block.iterations = iterations - blockIterations;
+            block.acceptances = accepted - blockAccepted;
+            block.bestCost = bestCost;
+            block.currentCost = currentCost;
+            block.rtaIterations = rtaIterations() - blockRta;
+            block.commit();
+        }
+    }
+
+    /*
+     * runs for at most maxIterations iterations and timeLimit ms, keeps the best solution on the cores
+     * */
+    public void solve(long maxIterations, long timeLimit) {
+        if (tasks.length == 0 || cores.length < 2) {
+            return;
+        }
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        try {
+            computeTotals();
+            double currentCost = currentCost();
+            double bestCost = currentCost;
+            int[] best = coreOf.clone();
+            long start = System.nanoTime();
+            int maxSize = Math.min(maxRuin, tasks.length);
+            int minSize = Math.min(minRuin, maxSize);
+            SolverEvents.SearchIterations block = null;
+            long blockIterations = 0, blockAccepted = 0, blockRta = 0;
+
+            while (iterations < maxIterations) {
+                long elapsed = System.nanoTime() - start;
+                if (elapsed > timeLimit * 1000000L) {
+                    break;
+                }
+                if (block == null) {
+                    block = new SolverEvents.SearchIterations();
+                    block.begin();
+                    blockIterations = iterations;
+                    blockAccepted = accepted;
+                    blockRta = block.isEnabled() ? rtaIterations() : 0;
+                }
+                double progress = Math.max((double) iterations / maxIterations, (double) elapsed / (timeLimit * 1e6));
+                double temperature = startTemperature * Math.pow(endTemperature / startTemperature, progress);
+                iterations++;
+
+                ruinedCount = 0;
+                pendingCount = 0;
+                int size = minSize + (int) (algo.random.nextDouble() * (maxSize - minSize + 1));
+                double operator = algo.random.nextDouble();
+                if (operator < 1.0 / 3) {
+                    ruinRandom(size);
+                } else if (operator < 2.0 / 3) {
+                    ruinRelated(size);
+                } else {
+                    ruinWorstCore();
+                }
+                if (recreate == Recreate.GREEDY) {
+                    recreateGreedy();
+                } else {
+                    recreateRegret();
+                }
+
+                double newCost = currentCost();
+                boolean accept;
+                if (acceptance == Acceptance.ANNEALING) {
+                    accept = newCost < currentCost
+                            || algo.random.nextDouble() < Math.exp(-(newCost - currentCost) / temperature);
+                } else {
+                    accept = newCost <= bestCost + deviation * Math.abs(bestCost);
+                }
+                if (accept) {
+                    accepted++;
+                    currentCost = newCost;
+                    if (newCost < bestCost) {
+                        improvements++;
+                        bestCost = newCost;
+                        best = coreOf.clone();
+                    }
+                } else {
+                    undo();
+                }
+                if (iterations - blockIterations == eventIterations || iterations == maxIterations) {
+                    commit(block, blockIterations, blockAccepted, blockRta, bestCost, currentCost);
+                    block = null;
+                }
+            }
+            if (block != null) {
+                commit(block, blockIterations, blockAccepted, blockRta, bestCost, currentCost);
+            }
+            restore(best);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+        }
+    }
+}
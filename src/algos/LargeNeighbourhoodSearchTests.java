@@ -0,0 +1,98 @@
+package algos;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import mcp.Core;
+import mcp.MCP;
+import mcp.Task;
+
+import org.junit.Test;
+
+public class LargeNeighbourhoodSearchTests {
+
+	static Algorithms start(List<Task> tasks, List<MCP> mcps) {
+		Algorithms algo = new Algorithms();
+		algo.verbose = false;
+		algo.setSeed(7);
+		algo.mcps = mcps;
+		algo.initialAssignation(tasks);
+		algo.perfectLaxity();
+		return algo;
+	}
+
+	// the core of every task, as mcp * 100 + core, and checks that every task is assigned once
+	static int[] assignment(Algorithms algo, int size) {
+		int[] assignment = new int[size];
+		int assigned = 0;
+		for (MCP mcp : algo.mcps) {
+			for (Core core : mcp.getCores()) {
+				for (Task task : core.getTasks()) {
+					assertEquals(0, assignment[task.getId()]);
+					assignment[task.getId()] = 1 + mcp.getId() * 100 + core.getId();
+					assigned++;
+				}
+			}
+		}
+		assertEquals(size, assigned);
+		return assignment;
+	}
+
+	@Test
+	public void testNeverWorse() {
+		for (LargeNeighbourhoodSearch.Recreate recreate : LargeNeighbourhoodSearch.Recreate.values()) {
+			for (LargeNeighbourhoodSearch.Acceptance acceptance : LargeNeighbourhoodSearch.Acceptance.values()) {
+				List<Task> tasks = SpeculativeAnnealingTests.tasks(3);
+				Algorithms algo = start(tasks, SpeculativeAnnealingTests.mcps());
+				double initial = algo.cost();
+
+				LargeNeighbourhoodSearch lns = new LargeNeighbourhoodSearch(algo);
+				lns.recreate = recreate;
+				lns.acceptance = acceptance;
+				lns.solve(300, 60000);
+				assignment(algo, tasks.size());
+				assertTrue(recreate + " " + acceptance, algo.cost() <= initial);
+				assertTrue(lns.improvements > 0);
+				assertTrue(lns.rtaIterations() > SpeculativeAnnealingTests.coreIterations(algo));
+			}
+		}
+	}
+
+	@Test
+	public void testParallelSameAsSequential() {
+		int[][] assignments = new int[2][];
+		for (int threads = 1; threads <= 2; threads++) {
+			List<Task> tasks = SpeculativeAnnealingTests.tasks(5);
+			Algorithms algo = start(tasks, SpeculativeAnnealingTests.mcps());
+			LargeNeighbourhoodSearch lns = new LargeNeighbourhoodSearch(algo);
+			lns.threads = threads;
+			lns.solve(100, 60000);
+			assignments[threads - 1] = assignment(algo, tasks.size());
+		}
+		assertArrayEquals(assignments[0], assignments[1]);
+	}
+
+	@Test
+	public void testReachesOptimum() throws Exception {
+		BranchAndBoundTests instance = new BranchAndBoundTests();
+		instance.setUp();
+		List<Core> cores = new ArrayList<Core>();
+		for (MCP mcp : instance.mcps) {
+			cores.addAll(mcp.getCores());
+		}
+		long expected = instance.bruteForce(0, cores);
+
+		Algorithms algo = start(instance.tasks, instance.mcps);
+		LargeNeighbourhoodSearch lns = new LargeNeighbourhoodSearch(algo);
+		lns.solve(500, 60000);
+		assignment(algo, instance.tasks.size());
+		long laxity = 0;
+		for (Core core : cores) {
+			assertEquals(0, core.getUnschedulable());
+			laxity += core.getLaxity();
+		}
+		assertEquals(expected, laxity);
+	}
+}
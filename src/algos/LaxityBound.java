@@ -0,0 +1,62 @@
+package algos;
+
+import mcp.Core;
+import mcp.MCP;
+import mcp.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Upper bound on the total laxity any assignment of the tasks to the cores can reach.
+ *
+ * It relaxes the assignment problem: every task runs at the fastest WCETFactor of the platform, and
+ * only the interference that no packing can avoid is counted. On a core only the highest priority task
+ * has no interference, so at most one task per core escapes it. Every other task shares its core with at
+ * least one higher priority task, which delays it by at least the smallest scaled WCET among the higher
+ * priority tasks. The bound lets the tasks that lose the most be the (at most #cores) exempted ones.
+ * */
+public class LaxityBound {
+
+    public static long upperBound(List<Task> tasks, List<MCP> mcps) {
+        double minFactor = Double.POSITIVE_INFINITY;
+        int coreCount = 0;
+        for (MCP mcp : mcps) {
+            for (Core core : mcp.getCores()) {
+                minFactor = Math.min(minFactor, core.getWCETFactor());
+                coreCount++;
+            }
+        }
+        if (coreCount == 0) {
+            return 0;
+        }
+
+        // the tasks in the order the cores give them priority
+        List<Task> sorted = new ArrayList<Task>(tasks);
+        sorted.sort(null);
+
+        long bound = 0;
+        long[] loss = new long[sorted.size()];
+        double smallestHigher = Double.POSITIVE_INFINITY; // smallest scaled WCET among the tasks before i
+        for (int i = 0; i < sorted.size(); i++) {
+            Task task = sorted.get(i);
+            long ci = (long) Math.ceil(task.getWCET() * minFactor);
+            long alone = task.getDeadline() - ci;
+            bound += alone;
+            if (i > 0) {
+                // either the interference delays the response, or the task misses its deadline (laxity <= 0)
+                long shared = Math.max(alone - (long) Math.floor(smallestHigher), 0);
+                loss[i] = alone - Math.min(alone, shared);
+            }
+            smallestHigher = Math.min(smallestHigher, task.getWCET() * minFactor);
+        }
+
+        // the tasks with the biggest loss are the ones that are alone at the top of a core
+        Arrays.sort(loss);
+        for (int i = 0; i < loss.length - coreCount; i++) {
+            bound -= loss[i];
+        }
+        return bound;
+    }
+}
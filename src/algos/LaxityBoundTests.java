@@ -0,0 +1,107 @@
+package algos;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import mcp.Core;
+import mcp.MCP;
+import mcp.Task;
+
+import org.junit.Test;
+
+public class LaxityBoundTests {
+
+	static List<Task> tasks() {
+		List<Task> tasks = new ArrayList<Task>();
+		tasks.add(new Task(0, 1, 4L, 4L));
+		tasks.add(new Task(1, 2, 6L, 6L));
+		tasks.add(new Task(2, 3, 12L, 12L));
+		return tasks;
+	}
+
+	static List<MCP> mcps(double... factors) {
+		List<MCP> mcps = new ArrayList<MCP>();
+		MCP mcp = new MCP(0);
+		for (int c = 0; c < factors.length; c++) {
+			mcp.addCore(new Core(c, factors[c]));
+		}
+		mcps.add(mcp);
+		return mcps;
+	}
+
+	@Test
+	public void testHandComputed() {
+		// at the fastest factor (1.0) the laxities alone are 3, 4 and 9, 16 in all. Tasks 1 and 2 come after a higher
+		// priority task, which delays them by at least the smallest WCET before them (1), task 0 loses nothing.
+		// The bound lets as many tasks as there are cores escape, the ones that lose the most: with one core
+		// the loss of one of tasks 1 and 2 is counted, with two cores none.
+		assertEquals(16 - 1, LaxityBound.upperBound(tasks(), mcps(1.0)));
+		assertEquals(16, LaxityBound.upperBound(tasks(), mcps(1.0, 2.0)));
+		assertEquals(16, LaxityBound.upperBound(tasks(), mcps(1.0, 2.0, 3.0)));
+		// the order of the cores does not matter, only the fastest factor
+		assertEquals(16, LaxityBound.upperBound(tasks(), mcps(2.0, 1.0)));
+		// the analysis on one core gives 3 + 3 + 2
+		List<MCP> mcps = mcps(1.0);
+		for (Task task : tasks()) {
+			mcps.get(0).getCore(0).addTask(task);
+		}
+		assertEquals(8, mcps.get(0).getLaxity());
+	}
+
+	@Test
+	public void testAboveOptimum() throws Exception {
+		BranchAndBoundTests instance = new BranchAndBoundTests();
+		instance.setUp();
+		BranchAndBound exact = new BranchAndBound(instance.tasks, instance.mcps);
+		long optimum = exact.solve(60000).laxity;
+		assertTrue(LaxityBound.upperBound(instance.tasks, instance.mcps) >= optimum);
+
+		exact = new BranchAndBound(tasks(), mcps(1.0, 2.0));
+		assertTrue(LaxityBound.upperBound(tasks(), mcps(1.0, 2.0)) >= exact.solve(60000).laxity);
+	}
+
+	static Algorithms anneal(double gap) {
+		List<Task> tasks = SpeculativeAnnealingTests.tasks(3);
+		Algorithms algo = new Algorithms();
+		algo.verbose = false;
+		algo.setSeed(7);
+		algo.mcps = SpeculativeAnnealingTests.mcps();
+		algo.initialAssignation(tasks);
+		algo.perfectLaxity();
+		algo.laxityBound = LaxityBound.upperBound(tasks, algo.mcps);
+		algo.gap = gap;
+		algo.simulatedAnnealing(35, 0.001, 200000, 1.1, 0.90);
+		return algo;
+	}
+
+	@Test
+	public void testGapStopsEarly() {
+		Algorithms full = anneal(0);
+		Algorithms early = anneal(0.5);
+		assertTrue(early.steps + " " + full.steps, early.steps < full.steps / 2);
+		assertEquals(0, early.unschedulable());
+		long laxity = 0;
+		for (MCP mcp : early.mcps) {
+			laxity += mcp.getLaxity();
+		}
+		assertTrue(laxity >= 0.5 * early.laxityBound);
+	}
+
+	@Test
+	public void testNoBoundOnlyStopsAtZero() {
+		// at a factor of 0.2 the laxity is above the perfect one (taken with the unscaled WCETs), the cost is
+		// below 0 from the start, and without a bound the annealing must still run to the end
+		List<Task> tasks = SpeculativeAnnealingTests.tasks(3);
+		Algorithms algo = new Algorithms();
+		algo.verbose = false;
+		algo.setSeed(7);
+		algo.mcps = mcps(0.2, 0.2, 0.2, 0.2);
+		algo.initialAssignation(tasks);
+		algo.perfectLaxity();
+		assertTrue(algo.cost() < 0);
+		algo.simulatedAnnealing(35, 0.001, 2000, 1.1, 0.90);
+		assertTrue(String.valueOf(algo.steps), algo.steps >= 2000);
+	}
+}
@@ -0,0 +1,14 @@
+package algos;
+
+import mcp.Core;
+
+/*
+ * A relocation of the annealing: the task at index of the core from goes to the core to.
+ * acceptance is the random number its Metropolis test uses, when it is drawn with the move.
+ * */
+class Move {
+    Core from;
+    Core to;
+    int index;
+    double acceptance;
+}
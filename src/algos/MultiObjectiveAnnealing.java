@@ -0,0 +1,161 @@
+package algos;
+
+import mcp.Core;
+import mcp.MCP;
+import mcp.Task;
+import mcp.XMLExport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Simulated annealing that explores the tradeoff between the total laxity, the number of
+ * unschedulable tasks and the balance of the cores instead of a single weighting of them.
+ *
+ * The penalty of an unschedulable task changes at every temperature level, going back and forth
+ * geometrically between minPenalty and maxPenalty, so a single run visits the configurations the
+ * different weightings lead to. Every accepted configuration is offered to a Pareto archive over
+ * (total laxity, unschedulable tasks, utilization spread of the cores), and the front is exported
+ * as one Solution file per entry. The annealing ends with the best entry of the archive on the cores
+ * (see ParetoArchive.best), not with the configuration the sweep happened to stop in.
+ * */
+public class MultiObjectiveAnnealing extends Algorithms {
+
+    final ParetoArchive archive;
+
+    // the penalties swept over the temperature levels
+    double minPenalty = 50;
+    double maxPenalty = 50000;
+    int sweepLevels = 8;
+
+    private Core[] cores;
+    private double levelTemperature;
+    private int level;
+
+    public MultiObjectiveAnnealing(int capacity) {
+        archive = new ParetoArchive(capacity);
+    }
+
+    // the penalty of the temperature level, a triangle wave between minPenalty and maxPenalty
+    int penaltyOf(int level) {
+        if (sweepLevels < 2) {
+            return (int) Math.round(minPenalty);
+        }
+        int period = 2 * (sweepLevels - 1);
+        int position = level % period;
+        if (position >= sweepLevels) {
+            position = period - position;
+        }
+        return (int) Math.round(minPenalty * Math.pow(maxPenalty / minPenalty, (double) position / (sweepLevels - 1)));
+    }
+
+    // the spread of the utilizations of the cores, max - min
+    double utilizationSpread() {
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        for (Core core : cores) {
+            double utilization = core.getUtilization();
+            min = Math.min(min, utilization);
+            max = Math.max(max, utilization);
+        }
+        return max - min;
+    }
+
+    // offers the current configuration to the archive
+    void offer() {
+        long laxity = 0;
+        int unschedulable = 0;
+        for (Core core : cores) {
+            laxity += core.getLaxity();
+            unschedulable += core.getUnschedulable();
+        }
+        archive.offer(laxity, unschedulable, utilizationSpread(), this::snapshot);
+    }
+
+    Task[][] snapshot() {
+        Task[][] assignment = new Task[cores.length][];
+        for (int c = 0; c < cores.length; c++) {
+            assignment[c] = cores[c].getTasks().toArray(new Task[0]);
+        }
+        return assignment;
+    }
+
+    // puts the tasks back on the cores they had in the entry
+    void restore(ParetoArchive.Entry entry) {
+        for (Core core : cores) {
+            core.clearTasks();
+        }
+        for (int c = 0; c < cores.length; c++) {
+            cores[c].addTaskList(Arrays.asList(entry.assignment[c]));
+            cores[c].calcWCRT();
+        }
+    }
+
+    // the cores of every MCP, in the order of the entries of the archive
+    private void collectCores() {
+        List<Core> allCores = new ArrayList<Core>();
+        for (MCP mcp : mcps) {
+            allCores.addAll(mcp.getCores());
+        }
+        cores = allCores.toArray(new Core[0]);
+    }
+
+    @Override
+    void simulatedAnnealing(double T0, double BETA0, int MAXTIME, double BETA, double ALPHA) {
+        collectCores();
+        int initialPenalty = penalty;
+        levelTemperature = Double.NaN;
+        level = -1;
+        offer();
+        super.simulatedAnnealing(T0, BETA0, MAXTIME, BETA, ALPHA);
+        penalty = initialPenalty;
+        restore(archive.best());
+    }
+
+    @Override
+    double step(double currentCost, double temperature) {
+        if (temperature != levelTemperature) { // a new temperature level
+            levelTemperature = temperature;
+            level++;
+            penalty = penaltyOf(level);
+            currentCost = cost(); // the cost of the current configuration changes with the penalty
+        }
+        currentCost = super.step(currentCost, temperature);
+        if (accepted) {
+            offer();
+        }
+        return currentCost;
+    }
+
+    /*
+     * writes every entry of the front to its own Solution file, resultPath-pareto-N.xml, by decreasing
+     * laxity. The cores are left with the assignment of the best entry. When the annealing did not run (the
+     * solution came from the cache) the front is the assignment on the cores.
+     * */
+    List<String> exportFront(String resultPath, long laxityBound) {
+        if (archive.getEntries().isEmpty()) {
+            collectCores();
+            offer();
+        }
+        List<ParetoArchive.Entry> front = new ArrayList<ParetoArchive.Entry>(archive.getEntries());
+        front.sort((a, b) -> Long.compare(b.laxity, a.laxity));
+        String base = resultPath.endsWith(".xml") ? resultPath.substring(0, resultPath.length() - 4) : resultPath;
+        List<String> paths = new ArrayList<String>();
+        for (int n = 0; n < front.size(); n++) {
+            ParetoArchive.Entry entry = front.get(n);
+            restore(entry);
+            XMLExport exporter = new XMLExport();
+            exporter.setLaxityBound(laxityBound);
+            for (MCP mcp : mcps) {
+                exporter.addMCP(mcp);
+            }
+            String path = base + "-pareto-" + n + ".xml";
+            exporter.exportTasksToXML(path);
+            paths.add(path);
+            System.out.format("%s: total laxity %d, unschedulable %d, utilization spread %.4f\n",
+                    path, entry.laxity, entry.unschedulable, entry.spread);
+        }
+        restore(archive.best());
+        return paths;
+    }
+}
@@ -0,0 +1,266 @@
+package algos;
+
+import mcp.Core;
+import mcp.MCP;
+import mcp.Parser;
+import mcp.ScaledWcet;
+import mcp.Task;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Racing tuner for the parameters of Algorithms.simulatedAnnealing (successive halving).
+ *
+ * A set of random configurations of (T0, ALPHA, BETA, BETA0) is raced on the training
+ * instances with a small MAXTIME. After every rung only the best 1/ETA configurations
+ * survive and MAXTIME is multiplied by ETA, so most of the time is spent on the good ones.
+ * Every (configuration, instance, seed) run is independent and they are evaluated in parallel.
+ *
+ * The instances are grouped by size class (number of tasks) and every class gets its own race,
+ * so we end up with tuned defaults for small, medium and large instances.
+ *
+ * usage: ParameterTuner [-configs n] [-seeds n] [-budget MAXTIME] [-eta n] [-threads n] [-out file] instance.xml...
+ * */
+public class ParameterTuner {
+
+    // one candidate setting of the annealing parameters and its statistics in the current rung
+    static class Configuration {
+        double T0, ALPHA, BETA, BETA0;
+        int MAXTIME; // the MAXTIME of the last rung the configuration was evaluated in
+
+        double meanCost;
+        long meanLaxity;
+        double meanUnschedulable;
+        int reachedTarget; // number of runs that reached the target cost
+        double meanTimeToTarget; // in ms, over the runs that reached it
+        int runs;
+
+        Configuration(double T0, double ALPHA, double BETA, double BETA0) {
+            this.T0 = T0;
+            this.ALPHA = ALPHA;
+            this.BETA = BETA;
+            this.BETA0 = BETA0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("T0=%.2f ALPHA=%.3f BETA=%.3f BETA0=%.5f MAXTIME=%d", T0, ALPHA, BETA, BETA0, MAXTIME);
+        }
+    }
+
+    // the result of a single annealing run
+    static class Run {
+        double cost;
+        long laxity;
+        int unschedulable;
+        long timeToTarget;
+    }
+
+    int configurations = 16;
+    int seeds = 3;
+    int budget = 200000; // MAXTIME of the first rung
+    int eta = 2;
+    int threads = Runtime.getRuntime().availableProcessors();
+    Random random = new Random(0);
+
+    /*
+     * the size class of an instance, tuned defaults are given per class
+     * */
+    static String sizeClass(int taskCount) {
+        if (taskCount <= 50) {
+            return "small";
+        } else if (taskCount <= 150) {
+            return "medium";
+        }
+        return "large";
+    }
+
+    /*
+     * samples the initial configurations, the first one is always the current default of Algorithms.main
+     * */
+    List<Configuration> sampleConfigurations() {
+        List<Configuration> configs = new ArrayList<Configuration>();
+        configs.add(new Configuration(35, 0.90, 1.1, 0.001));
+        while (configs.size() < configurations) {
+            double T0 = Math.exp(Math.log(1) + random.nextDouble() * (Math.log(200) - Math.log(1))); // log-uniform in [1, 200]
+            double ALPHA = 0.80 + random.nextDouble() * 0.19;
+            double BETA = 1.0 + random.nextDouble() * 0.3;
+            double BETA0 = Math.exp(Math.log(0.0002) + random.nextDouble() * (Math.log(0.01) - Math.log(0.0002)));
+            configs.add(new Configuration(T0, ALPHA, BETA, BETA0));
+        }
+        return configs;
+    }
+
+    /*
+     * runs the annealing once on a fresh copy of the instance
+     * */
+    static Run run(String instance, Configuration config, int MAXTIME, long seed, double targetCost) {
+        Algorithms algo = new Algorithms();
+        algo.verbose = false;
+        algo.setSeed(seed);
+        List<Task> tasks = Parser.createTasksFromXml(instance);
+        algo.mcps = Parser.createMCPsFromXml(instance);
+        ScaledWcet.precompute(tasks, algo.mcps);
+        algo.initialAssignation(tasks);
+        algo.perfectLaxity();
+        algo.targetCost = targetCost;
+        algo.simulatedAnnealing(config.T0, config.BETA0, MAXTIME, config.BETA, config.ALPHA);
+
+        Run run = new Run();
+        run.cost = algo.cost();
+        run.timeToTarget = algo.timeToTarget;
+        for (MCP mcp : algo.mcps) {
+            for (Core core : mcp.getCores()) {
+                run.laxity += core.getLaxity();
+                run.unschedulable += core.getUnschedulable();
+            }
+        }
+        return run;
+    }
+
+    /*
+     * races the configurations on the instances of one size class and returns the survivors, best first
+     * */
+    List<Configuration> race(List<String> instances, List<Configuration> configs, ExecutorService pool) throws Exception {
+        int MAXTIME = budget;
+        double[] targets = new double[instances.size()];
+        Arrays.fill(targets, Double.NEGATIVE_INFINITY); // no target in the first rung
+        int rung = 0;
+
+        while (true) {
+            System.out.format("rung %d: %d configurations, MAXTIME=%d\n", rung, configs.size(), MAXTIME);
+
+            // we submit every (configuration, instance, seed) run
+            Map<Configuration, List<Future<Run>>> futures = new LinkedHashMap<Configuration, List<Future<Run>>>();
+            double[] bestCosts = new double[instances.size()];
+            Arrays.fill(bestCosts, Double.POSITIVE_INFINITY);
+            for (final Configuration config : configs) {
+                List<Future<Run>> runs = new ArrayList<Future<Run>>();
+                for (int i = 0; i < instances.size(); i++) {
+                    for (int s = 0; s < seeds; s++) {
+                        final String instance = instances.get(i);
+                        final int time = MAXTIME;
+                        final long seed = s;
+                        final double target = targets[i];
+                        runs.add(pool.submit(() -> run(instance, config, time, seed, target)));
+                    }
+                }
+                futures.put(config, runs);
+            }
+
+            // we collect the statistics of every configuration
+            for (Configuration config : configs) {
+                List<Future<Run>> runs = futures.get(config);
+                double cost = 0, unschedulable = 0, timeToTarget = 0;
+                long laxity = 0;
+                int reached = 0;
+                for (int k = 0; k < runs.size(); k++) {
+                    Run run = runs.get(k).get();
+                    int i = k / seeds;
+                    bestCosts[i] = Math.min(bestCosts[i], run.cost);
+                    cost += run.cost;
+                    laxity += run.laxity;
+                    unschedulable += run.unschedulable;
+                    if (run.timeToTarget >= 0) {
+                        reached++;
+                        timeToTarget += run.timeToTarget / 1e6;
+                    }
+                }
+                config.MAXTIME = MAXTIME;
+                config.runs = runs.size();
+                config.meanCost = cost / runs.size();
+                config.meanLaxity = laxity / runs.size();
+                config.meanUnschedulable = unschedulable / runs.size();
+                config.reachedTarget = reached;
+                config.meanTimeToTarget = reached == 0 ? Double.NaN : timeToTarget / reached;
+            }
+
+            configs.sort(Comparator.comparingDouble((Configuration c) -> c.meanCost));
+            for (Configuration config : configs) {
+                System.out.format("  %s cost=%.2f laxity=%d unschedulable=%.2f target=%d/%d ttt=%.1fms\n",
+                        config, config.meanCost, config.meanLaxity, config.meanUnschedulable,
+                        config.reachedTarget, config.runs, config.meanTimeToTarget);
+            }
+
+            if (configs.size() == 1) {
+                return configs;
+            }
+            // the poor configurations are dropped, the best cost of this rung becomes the target of the next one
+            configs = new ArrayList<Configuration>(configs.subList(0, Math.max(1, configs.size() / eta)));
+            targets = bestCosts;
+            MAXTIME *= eta;
+            rung++;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ParameterTuner tuner = new ParameterTuner();
+        String out = null;
+        List<String> instances = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-configs": tuner.configurations = Integer.parseInt(args[++i]); break;
+                case "-seeds": tuner.seeds = Integer.parseInt(args[++i]); break;
+                case "-budget": tuner.budget = Integer.parseInt(args[++i]); break;
+                case "-eta": tuner.eta = Integer.parseInt(args[++i]); break;
+                case "-threads": tuner.threads = Integer.parseInt(args[++i]); break;
+                case "-out": out = args[++i]; break;
+                default: instances.add(args[i]);
+            }
+        }
+        if (tuner.eta < 2) {
+            // with 1 the rungs never shrink, with 0 there is nothing left to divide by
+            throw new IllegalArgumentException("-eta must be at least 2, not " + tuner.eta);
+        }
+        if (instances.isEmpty()) {
+            instances.addAll(Arrays.asList("small.xml", "medium.xml", "large.xml"));
+        }
+
+        // we group the training instances by size class
+        Map<String, List<String>> classes = new LinkedHashMap<String, List<String>>();
+        for (String instance : instances) {
+            String sizeClass = sizeClass(Parser.createTasksFromXml(instance).size());
+            classes.computeIfAbsent(sizeClass, k -> new ArrayList<String>()).add(instance);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(tuner.threads);
+        StringBuilder defaults = new StringBuilder();
+        try {
+            for (Map.Entry<String, List<String>> entry : classes.entrySet()) {
+                System.out.println("Tuning " + entry.getKey() + " instances " + entry.getValue());
+                Configuration best = tuner.race(entry.getValue(), tuner.sampleConfigurations(), pool).get(0);
+                System.out.println("Best configuration for " + entry.getKey() + ": " + best);
+                System.out.format("  mean laxity %d, mean unschedulable %.2f, time-to-target %.1fms (%d/%d runs)\n",
+                        best.meanLaxity, best.meanUnschedulable, best.meanTimeToTarget, best.reachedTarget, best.runs);
+
+                String prefix = entry.getKey() + ".";
+                defaults.append(prefix).append("T0=").append(best.T0).append('\n');
+                defaults.append(prefix).append("ALPHA=").append(best.ALPHA).append('\n');
+                defaults.append(prefix).append("BETA=").append(best.BETA).append('\n');
+                defaults.append(prefix).append("BETA0=").append(best.BETA0).append('\n');
+                defaults.append(prefix).append("MAXTIME=").append(best.MAXTIME).append('\n');
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        if (out != null) {
+            try (FileWriter writer = new FileWriter(out)) {
+                writer.write(defaults.toString());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
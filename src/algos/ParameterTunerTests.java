@@ -0,0 +1,83 @@
+package algos;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import mcp.InstanceGenerator;
+
+import org.junit.Test;
+
+public class ParameterTunerTests {
+
+	static List<String> instances() throws Exception {
+		File file = File.createTempFile("instance", ".xml");
+		file.deleteOnExit();
+		InstanceGenerator.generate(file.getPath(), 4, 12, 1, 3, 0.4);
+		return Collections.singletonList(file.getPath());
+	}
+
+	// races the configurations and returns the MAXTIME of the last rung of every one of them, sorted
+	static List<Integer> lastRungs(int configurations, int eta) throws Exception {
+		ParameterTuner tuner = new ParameterTuner();
+		tuner.configurations = configurations;
+		tuner.eta = eta;
+		tuner.seeds = 1;
+		tuner.budget = 100;
+		List<ParameterTuner.Configuration> configs = tuner.sampleConfigurations();
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		List<ParameterTuner.Configuration> survivors;
+		try {
+			survivors = tuner.race(instances(), new ArrayList<ParameterTuner.Configuration>(configs), pool);
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(1, survivors.size());
+		List<Integer> rungs = new ArrayList<Integer>();
+		for (ParameterTuner.Configuration config : configs) {
+			rungs.add(config.MAXTIME);
+		}
+		Collections.sort(rungs);
+		// the survivor went through every rung
+		assertEquals(rungs.get(rungs.size() - 1).intValue(), survivors.get(0).MAXTIME);
+		return rungs;
+	}
+
+	@Test
+	public void testSuccessiveHalving() throws Exception {
+		// 5 configurations, then 2, then 1, with a MAXTIME twice as large at every rung
+		assertEquals(Arrays.asList(100, 100, 100, 200, 400), lastRungs(5, 2));
+		// 10, then 3, then 1, three times as large
+		assertEquals(Arrays.asList(100, 100, 100, 100, 100, 100, 100, 300, 300, 900), lastRungs(10, 3));
+	}
+
+	@Test
+	public void testDefaultRacedFirst() {
+		ParameterTuner tuner = new ParameterTuner();
+		tuner.configurations = 4;
+		List<ParameterTuner.Configuration> configs = tuner.sampleConfigurations();
+		assertEquals(4, configs.size());
+		assertEquals(35, configs.get(0).T0, 0);
+		assertEquals(0.90, configs.get(0).ALPHA, 0);
+		for (ParameterTuner.Configuration config : configs) {
+			assertTrue(config.T0 >= 1 && config.T0 <= 200);
+			assertTrue(config.ALPHA >= 0.80 && config.ALPHA < 0.99);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEtaOfOneRejected() throws Exception {
+		ParameterTuner.main(new String[]{"-eta", "1"});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEtaOfZeroRejected() throws Exception {
+		ParameterTuner.main(new String[]{"-eta", "0"});
+	}
+}
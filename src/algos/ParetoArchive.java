@@ -0,0 +1,128 @@
+package algos;
+
+import mcp.Task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/*
+ * Bounded archive of the non-dominated assignments found so far, over three objectives:
+ * the total laxity (to maximize), the number of unschedulable tasks and the spread of the core
+ * utilizations (max - min, to minimize).
+ *
+ * An offer is first checked against the archive (a linear scan, nothing is copied when the point is
+ * dominated, which is almost always the case), the assignment is only copied when the point enters.
+ * When the archive is full, the entry with the smallest crowding distance (the one whose neighbours on
+ * the front are the closest, as in NSGA-II) is dropped, so the front stays spread out. The extreme
+ * points of every objective have an infinite distance, they are kept unless there are more of them
+ * than the capacity.
+ * */
+public class ParetoArchive {
+
+    public static class Entry {
+        public final long laxity;
+        public final int unschedulable;
+        public final double spread;
+        // the tasks of every core, in the order of the cores of the MCPs
+        final Task[][] assignment;
+        double crowding;
+
+        Entry(long laxity, int unschedulable, double spread, Task[][] assignment) {
+            this.laxity = laxity;
+            this.unschedulable = unschedulable;
+            this.spread = spread;
+            this.assignment = assignment;
+        }
+
+        // at least as good on every objective
+        boolean covers(long laxity, int unschedulable, double spread) {
+            return this.laxity >= laxity && this.unschedulable <= unschedulable && this.spread <= spread;
+        }
+
+        boolean coveredBy(long laxity, int unschedulable, double spread) {
+            return laxity >= this.laxity && unschedulable <= this.unschedulable && spread <= this.spread;
+        }
+    }
+
+    private final int capacity;
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    public ParetoArchive(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /*
+     * the entry the single objective annealing would prefer: the fewest unschedulable tasks, then the
+     * largest laxity, then the smallest spread. null when the archive is empty
+     * */
+    public Entry best() {
+        Entry best = null;
+        for (Entry entry : entries) {
+            if (best == null || entry.unschedulable < best.unschedulable
+                    || (entry.unschedulable == best.unschedulable && (entry.laxity > best.laxity
+                    || (entry.laxity == best.laxity && entry.spread < best.spread)))) {
+                best = entry;
+            }
+        }
+        return best;
+    }
+
+    /*
+     * adds the point if no entry covers it, snapshot is only called in that case.
+     * returns true if the point entered the archive
+     * */
+    public boolean offer(long laxity, int unschedulable, double spread, Supplier<Task[][]> snapshot) {
+        for (Entry entry : entries) {
+            if (entry.covers(laxity, unschedulable, spread)) {
+                return false;
+            }
+        }
+        entries.removeIf(entry -> entry.coveredBy(laxity, unschedulable, spread));
+        entries.add(new Entry(laxity, unschedulable, spread, snapshot.get()));
+        if (entries.size() > capacity) {
+            computeCrowding();
+            Entry mostCrowded = entries.get(0);
+            for (Entry entry : entries) {
+                if (entry.crowding < mostCrowded.crowding) {
+                    mostCrowded = entry;
+                }
+            }
+            entries.remove(mostCrowded);
+        }
+        return true;
+    }
+
+    // the crowding distance of every entry, the sum over the objectives of the normalized distance
+    // between its two neighbours
+    private void computeCrowding() {
+        for (Entry entry : entries) {
+            entry.crowding = 0;
+        }
+        crowding(entry -> entry.laxity);
+        crowding(entry -> entry.unschedulable);
+        crowding(entry -> entry.spread);
+    }
+
+    private void crowding(ToDoubleFunction<Entry> objective) {
+        List<Entry> sorted = new ArrayList<Entry>(entries);
+        sorted.sort(Comparator.comparingDouble(objective));
+        int last = sorted.size() - 1;
+        sorted.get(0).crowding = Double.POSITIVE_INFINITY;
+        sorted.get(last).crowding = Double.POSITIVE_INFINITY;
+        double range = objective.applyAsDouble(sorted.get(last)) - objective.applyAsDouble(sorted.get(0));
+        if (range == 0) {
+            return;
+        }
+        for (int k = 1; k < last; k++) {
+            sorted.get(k).crowding += (objective.applyAsDouble(sorted.get(k + 1))
+                    - objective.applyAsDouble(sorted.get(k - 1))) / range;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package algos;
+
+import static org.junit.Assert.*;
+
+import mcp.Core;
+import mcp.MCP;
+import mcp.Task;
+
+import org.junit.Test;
+
+public class ParetoArchiveTests {
+
+	static Task[][] nothing() {
+		return new Task[0][];
+	}
+
+	@Test
+	public void testDominance() {
+		ParetoArchive archive = new ParetoArchive(10);
+		assertTrue(archive.offer(100, 2, 0.5, ParetoArchiveTests::nothing));
+		// worse on every objective, or equal
+		assertFalse(archive.offer(90, 3, 0.6, ParetoArchiveTests::nothing));
+		assertFalse(archive.offer(100, 2, 0.5, ParetoArchiveTests::nothing));
+		// a tradeoff
+		assertTrue(archive.offer(120, 3, 0.5, ParetoArchiveTests::nothing));
+		assertEquals(2, archive.getEntries().size());
+		// dominates both
+		assertTrue(archive.offer(130, 1, 0.1, ParetoArchiveTests::nothing));
+		assertEquals(1, archive.getEntries().size());
+	}
+
+	@Test
+	public void testCapacityKeepsExtremes() {
+		ParetoArchive archive = new ParetoArchive(5);
+		// a front along laxity / spread, the more laxity the more spread
+		for (int k = 0; k <= 20; k++) {
+			assertTrue(archive.offer(1000 + 10 * k, 0, 0.01 * k, ParetoArchiveTests::nothing));
+		}
+		assertEquals(5, archive.getEntries().size());
+		long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+		for (ParetoArchive.Entry entry : archive.getEntries()) {
+			min = Math.min(min, entry.laxity);
+			max = Math.max(max, entry.laxity);
+		}
+		assertEquals(1000, min);
+		assertEquals(1200, max);
+	}
+
+	@Test
+	public void testBest() {
+		ParetoArchive archive = new ParetoArchive(10);
+		assertNull(archive.best());
+		archive.offer(200, 2, 0.1, ParetoArchiveTests::nothing);
+		archive.offer(100, 0, 0.5, ParetoArchiveTests::nothing);
+		archive.offer(150, 0, 0.6, ParetoArchiveTests::nothing);
+		archive.offer(150, 0, 0.4, ParetoArchiveTests::nothing);
+		// schedulable first, then laxity, then spread
+		ParetoArchive.Entry best = archive.best();
+		assertEquals(150, best.laxity);
+		assertEquals(0, best.unschedulable);
+		assertEquals(0.4, best.spread, 0);
+	}
+
+	@Test
+	public void testAnnealingEndsOnBestEntry() {
+		MultiObjectiveAnnealing algo = new MultiObjectiveAnnealing(8);
+		SpeculativeAnnealingTests.anneal(algo, 50000);
+		ParetoArchive.Entry best = algo.archive.best();
+		long laxity = 0;
+		int unschedulable = 0;
+		for (MCP mcp : algo.mcps) {
+			for (Core core : mcp.getCores()) {
+				laxity += core.getLaxity();
+				unschedulable += core.getUnschedulable();
+			}
+		}
+		assertEquals(best.laxity, laxity);
+		assertEquals(best.unschedulable, unschedulable);
+		AlgorithmsTests.assertAssignedOnce(algo.mcps, 40);
+	}
+}
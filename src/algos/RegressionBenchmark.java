@@ -0,0 +1,347 @@
+package algos;
+
+import mcp.InstanceGenerator;
+import mcp.MCP;
+import mcp.Parser;
+import mcp.ScaledWcet;
+import mcp.Task;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/*
+ * Quality and speed regression suite.
+ *
+ * Every solver configuration runs on the bundled instances and on a few generated ones with fixed
+ * seeds. For every (configuration, instance) we record the mean total laxity, the mean number of
+ * unschedulable tasks, the steps per second and the time to reach the baseline laxity (minus the
+ * quality tolerance). The figures are compared to the committed baseline file, and the suite exits
+ * with status 1 when the laxity, the number of unschedulable tasks or the throughput regressed by
+ * more than the thresholds. -update writes the new figures as the baseline instead.
+ *
+ * Steps per second depend on the machine, so the throughput that is recorded and compared is relative:
+ * the steps per second of a configuration divided by the ones of the reference configuration (the plain
+ * annealing) on the same instance in the same run, and for the reference configuration itself, divided
+ * by the speed of a fixed calibration loop. A step is a move for the annealings, a node for the exact
+ * solver and an iteration for the large neighbourhood search.
+ * The figures also depend on the number of threads, on MAXTIME and on the number of seeds, so the baseline
+ * records them and a run with other settings is not compared to it (run with the same ones, or -update).
+ *
+ * usage: RegressionBenchmark [-baseline file] [-update] [-maxtime n] [-seeds n] [-quality f] [-throughput f]
+ *                           [-threads n]
+ * */
+public class RegressionBenchmark {
+
+    // the reference configuration comes first, the others are measured against it
+    static final String[] CONFIGURATIONS = {"annealing", "decomposition", "exact", "batched", "speculative",
+            "pareto", "lns"};
+    static final String REFERENCE = "annealing";
+
+    String baselinePath = "results/baseline.properties";
+    int MAXTIME = 300000;
+    int seeds = 2;
+    double qualityThreshold = 0.01; // relative laxity loss allowed
+    double throughputThreshold = 0.5; // relative loss of relative throughput allowed
+    int exactTimeLimit = 10; // seconds, the exact solver only runs on small instances
+    int lnsIterations = 300; // an iteration budget rather than a time limit, for the same results everywhere
+    int threads = Runtime.getRuntime().availableProcessors();
+
+    // the figures of one (configuration, instance)
+    static class Measure {
+        double laxity;
+        double unschedulable;
+        double stepsPerSecond;
+        double relativeThroughput;
+        double timeToTarget = -1; // ms, -1 when the target was not reached (or there was no target)
+    }
+
+    /*
+     * the bundled instances and the generated ones, written in the temporary directory
+     * */
+    static List<String> instances() {
+        List<String> instances = new ArrayList<String>(Arrays.asList("small.xml", "medium.xml", "large.xml"));
+        String dir = System.getProperty("java.io.tmpdir");
+        String generated = new File(dir, "generated-60.xml").getPath();
+        InstanceGenerator.generate(generated, 1, 60, 2, 4, 0.4);
+        instances.add(generated);
+        generated = new File(dir, "generated-180.xml").getPath();
+        InstanceGenerator.generate(generated, 2, 180, 4, 4, 0.5);
+        instances.add(generated);
+        return instances;
+    }
+
+    static String name(String instance) {
+        return new File(instance).getName().replace(".xml", "");
+    }
+
+    /*
+     * iterations per second of a fixed loop with the arithmetic of the response time analysis (divisions,
+     * ceilings and sums of doubles), the best of a few rounds. It never changes, so the throughput of the
+     * reference configuration divided by it only moves when the solver does (or with the kind of machine)
+     * */
+    static double calibration() {
+        double[] periods = new double[64];
+        double[] wcets = new double[64];
+        for (int i = 0; i < periods.length; i++) {
+            periods[i] = 5000 << (i % 5);
+            wcets[i] = 10 + 37 * i;
+        }
+        double best = 0;
+        double sink = 0;
+        for (int round = 0; round < 5; round++) {
+            int iterations = 200000;
+            long start = System.nanoTime();
+            for (int k = 0; k < iterations; k++) {
+                double response = 1000 + k % 1000;
+                for (int i = 0; i < periods.length; i++) {
+                    sink += Math.ceil(response / periods[i]) * wcets[i];
+                }
+            }
+            best = Math.max(best, iterations / ((System.nanoTime() - start) / 1e9));
+        }
+        if (sink == 42) { // keeps the loop from being optimized away
+            System.out.print("");
+        }
+        return best;
+    }
+
+    /*
+     * runs a configuration on an instance with one seed, null if the configuration does not apply
+     * */
+    Measure run(String configuration, String instance, long seed, double targetLaxity) throws Exception {
+        Algorithms algo;
+        switch (configuration) {
+            case "batched": algo = new BatchedAnnealing(4, threads); break;
+            case "speculative": algo = new SpeculativeAnnealing(16, threads); break;
+            case "pareto": algo = new MultiObjectiveAnnealing(8); break;
+            default: algo = new Algorithms();
+        }
+        algo.verbose = false;
+        algo.setSeed(seed);
+        List<Task> tasks = Parser.createTasksFromXml(instance);
+        algo.mcps = Parser.createMCPsFromXml(instance);
+        ScaledWcet.precompute(tasks, algo.mcps);
+
+        Measure measure = new Measure();
+        long steps;
+        long start = System.nanoTime();
+        switch (configuration) {
+            case "annealing":
+            case "batched":
+            case "speculative":
+            case "pareto":
+                algo.initialAssignation(tasks);
+                algo.perfectLaxity();
+                algo.targetCost = algo.cost((long) Math.ceil(targetLaxity), 0, tasks.size());
+                algo.simulatedAnnealing(35, 0.001, MAXTIME, 1.1, 0.90);
+                steps = algo.steps;
+                if (algo.timeToTarget >= 0) {
+                    measure.timeToTarget = algo.timeToTarget / 1e6;
+                }
+                break;
+            case "decomposition":
+                DecompositionSolver decomposition = new DecompositionSolver(algo);
+                decomposition.rounds = 5;
+                decomposition.solve(tasks, 35, 0.001, MAXTIME, 1.1, 0.90);
+                steps = decomposition.steps();
+                break;
+            case "exact":
+                if (tasks.size() > 50) {
+                    return null;
+                }
+                BranchAndBound exact = new BranchAndBound(tasks, algo.mcps);
+                BranchAndBound.Result result = exact.solve(exactTimeLimit * 1000L);
+                if (!result.feasible) {
+                    algo.initialAssignation(tasks);
+                } else {
+                    exact.apply();
+                }
+                steps = result.nodes;
+                break;
+            case "lns":
+                algo.initialAssignation(tasks);
+                algo.perfectLaxity();
+                LargeNeighbourhoodSearch lns = new LargeNeighbourhoodSearch(algo);
+                lns.threads = threads;
+                lns.solve(lnsIterations, Long.MAX_VALUE / 1000000L);
+                steps = lns.iterations;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown configuration " + configuration);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (MCP mcp : algo.mcps) {
+            measure.laxity += mcp.getLaxity();
+        }
+        measure.unschedulable = algo.unschedulable();
+        measure.stepsPerSecond = steps / (elapsed / 1e9);
+        return measure;
+    }
+
+    /*
+     * the mean over the seeds
+     * */
+    Measure measure(String configuration, String instance, double targetLaxity) throws Exception {
+        Measure mean = new Measure();
+        int reached = 0;
+        double timeToTarget = 0;
+        for (int seed = 0; seed < seeds; seed++) {
+            Measure measure = run(configuration, instance, seed, targetLaxity);
+            if (measure == null) {
+                return null;
+            }
+            mean.laxity += measure.laxity / seeds;
+            mean.unschedulable += measure.unschedulable / seeds;
+            mean.stepsPerSecond += measure.stepsPerSecond / seeds;
+            if (measure.timeToTarget >= 0) {
+                reached++;
+                timeToTarget += measure.timeToTarget;
+            }
+        }
+        if (reached > 0) {
+            mean.timeToTarget = timeToTarget / reached;
+        }
+        return mean;
+    }
+
+    // the settings the figures depend on, as they are written in the baseline
+    TreeMap<String, String> settings() {
+        TreeMap<String, String> settings = new TreeMap<String, String>();
+        settings.put("settings.threads", String.valueOf(threads));
+        settings.put("settings.maxtime", String.valueOf(MAXTIME));
+        settings.put("settings.seeds", String.valueOf(seeds));
+        return settings;
+    }
+
+    /*
+     * the settings of this run that differ from the ones of the baseline (or that the baseline does not have),
+     * empty when the figures can be compared
+     * */
+    List<String> mismatches(Properties baseline) {
+        List<String> mismatches = new ArrayList<String>();
+        for (Map.Entry<String, String> setting : settings().entrySet()) {
+            String recorded = baseline.getProperty(setting.getKey());
+            if (!setting.getValue().equals(recorded)) {
+                mismatches.add(setting.getKey() + " is " + setting.getValue() + " here, "
+                        + (recorded == null ? "not recorded" : recorded) + " in the baseline");
+            }
+        }
+        return mismatches;
+    }
+
+    static double get(Properties properties, String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    /*
+     * runs the whole suite, returns the number of regressions
+     * */
+    int runSuite(boolean update) throws Exception {
+        Properties baseline = new Properties();
+        if (new File(baselinePath).exists()) {
+            try (FileReader reader = new FileReader(baselinePath)) {
+                baseline.load(reader);
+            }
+            List<String> mismatches = mismatches(baseline);
+            if (!update && !mismatches.isEmpty()) {
+                throw new IllegalStateException("the baseline was recorded with other settings ("
+                        + String.join(", ", mismatches) + "), run with the same ones or -update");
+            }
+        }
+
+        TreeMap<String, String> figures = new TreeMap<String, String>();
+        int regressions = 0;
+        double calibration = calibration();
+        System.out.format("calibration: %.0f iterations/s\n", calibration);
+        System.out.format("%-14s %-14s %12s %8s %12s %10s %10s  %s\n",
+                "configuration", "instance", "laxity", "unsched", "steps/s", "relative", "ttt (ms)", "status");
+        for (String instance : instances()) {
+            double referenceSpeed = calibration;
+            for (String configuration : CONFIGURATIONS) {
+                String key = configuration + "." + name(instance) + ".";
+                double baseLaxity = get(baseline, key + "laxity", Double.NaN);
+                double target = Double.isNaN(baseLaxity) ? Double.POSITIVE_INFINITY
+                        : baseLaxity - qualityThreshold * Math.abs(baseLaxity);
+                Measure measure = measure(configuration, instance, target);
+                if (measure == null) {
+                    continue;
+                }
+                measure.relativeThroughput = measure.stepsPerSecond / referenceSpeed;
+                if (configuration.equals(REFERENCE)) {
+                    referenceSpeed = measure.stepsPerSecond;
+                }
+
+                String status = "ok";
+                if (!Double.isNaN(baseLaxity)) {
+                    if (measure.laxity < target) {
+                        status = "QUALITY REGRESSION (laxity)";
+                    } else if (measure.unschedulable > get(baseline, key + "unschedulable", 0)) {
+                        status = "QUALITY REGRESSION (unschedulable)";
+                    } else if (measure.relativeThroughput
+                            < (1 - throughputThreshold) * get(baseline, key + "relativeThroughput", 0)) {
+                        status = "THROUGHPUT REGRESSION";
+                    }
+                } else {
+                    status = "no baseline";
+                }
+                if (status.contains("REGRESSION")) {
+                    regressions++;
+                }
+                System.out.format("%-14s %-14s %12.0f %8.2f %12.0f %10.4g %10.1f  %s\n", configuration,
+                        name(instance), measure.laxity, measure.unschedulable, measure.stepsPerSecond,
+                        measure.relativeThroughput, measure.timeToTarget, status);
+
+                figures.put(key + "laxity", String.format("%.0f", measure.laxity));
+                figures.put(key + "unschedulable", String.format("%.2f", measure.unschedulable));
+                figures.put(key + "relativeThroughput", String.format("%.4g", measure.relativeThroughput));
+            }
+        }
+
+        if (update) {
+            try (FileWriter writer = new FileWriter(baselinePath)) {
+                writer.write("# written by algos.RegressionBenchmark -update\n");
+                figures.putAll(settings());
+                for (String key : figures.keySet()) {
+                    writer.write(key + "=" + figures.get(key) + "\n");
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            System.out.println("baseline written to " + baselinePath);
+            return 0;
+        }
+        return regressions;
+    }
+
+    public static void main(String[] args) throws Exception {
+        RegressionBenchmark benchmark = new RegressionBenchmark();
+        boolean update = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-baseline": benchmark.baselinePath = args[++i]; break;
+                case "-update": update = true; break;
+                case "-maxtime": benchmark.MAXTIME = Integer.parseInt(args[++i]); break;
+                case "-seeds": benchmark.seeds = Integer.parseInt(args[++i]); break;
+                case "-quality": benchmark.qualityThreshold = Double.parseDouble(args[++i]); break;
+                case "-throughput": benchmark.throughputThreshold = Double.parseDouble(args[++i]); break;
+                case "-threads": benchmark.threads = Integer.parseInt(args[++i]); break;
+                default: throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        int regressions = benchmark.runSuite(update);
+        if (regressions > 0) {
+            System.out.println(regressions + " regressions");
+            System.exit(1);
+        }
+    }
+}
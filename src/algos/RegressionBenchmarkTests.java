@@ -0,0 +1,27 @@
+package algos;
+
+import static org.junit.Assert.*;
+
+import java.util.Properties;
+
+import org.junit.Test;
+
+public class RegressionBenchmarkTests {
+
+	@Test
+	public void testSettingsMustMatch() {
+		RegressionBenchmark benchmark = new RegressionBenchmark();
+		benchmark.threads = 4;
+		Properties baseline = new Properties();
+		// an old baseline without the settings cannot be compared
+		assertEquals(3, benchmark.mismatches(baseline).size());
+
+		baseline.putAll(benchmark.settings());
+		assertTrue(benchmark.mismatches(baseline).isEmpty());
+
+		benchmark.threads = 8;
+		benchmark.seeds = 5;
+		assertEquals(2, benchmark.mismatches(baseline).size());
+		assertTrue(benchmark.mismatches(baseline).get(0).contains("settings.seeds is 5 here, 2 in the baseline"));
+	}
+}
@@ -0,0 +1,50 @@
+package algos;
+
+import java.util.Random;
+
+/*
+ * java.util.Random whose state can be read and restored, so that the numbers drawn after a point can
+ * be drawn again. It runs the same linear congruential generator as Random (same seed, same numbers),
+ * the state just lives here instead of in the private AtomicLong of Random.
+ * Not thread safe, every annealing has its own generator.
+ * */
+class ReplayableRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // no initializer: the constructor of Random calls setSeed before the fields of this class are initialized
+    private long state;
+
+    ReplayableRandom() {
+        super();
+    }
+
+    ReplayableRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    // the state to come back to with rewind
+    long mark() {
+        return state;
+    }
+
+    void rewind(long mark) {
+        state = mark;
+    }
+}
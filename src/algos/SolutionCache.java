@@ -0,0 +1,129 @@
+package algos;
+
+import mcp.Core;
+import mcp.MCP;
+import mcp.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+ * On-disk cache of the best known Solution of every instance, so that a model submitted again is not solved
+ * from scratch. An instance is identified by a fingerprint that does not depend on the order of the tasks,
+ * MCPs and cores in the file nor on its formatting: the SHA-256 of the tasks sorted by id and of the WCET
+ * factors of the cores sorted by MCP and core id.
+ * Every entry is a Solution file <fingerprint>.xml in the directory. Reading or writing an entry sets its
+ * modification time, and when there are more than maxEntries entries the least recently used ones are deleted.
+ * */
+public class SolutionCache {
+
+    private final File directory;
+    private final int maxEntries;
+    private long clock; // the last modification time given, so that two uses in the same ms stay ordered
+
+    public SolutionCache(String directory, int maxEntries) {
+        this.directory = new File(directory);
+        this.maxEntries = maxEntries;
+        this.directory.mkdirs();
+    }
+
+    public static String fingerprint(List<Task> tasks, List<MCP> mcps) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every Java platform has SHA-256
+        }
+        List<Task> sortedTasks = new ArrayList<Task>(tasks);
+        sortedTasks.sort(Comparator.comparing(Task::getId));
+        ByteBuffer buffer = ByteBuffer.allocate(28);
+        for (Task task : sortedTasks) {
+            buffer.clear();
+            buffer.putInt(task.getId()).putInt(task.getWCET()).putLong(task.getDeadline()).putLong(task.getPeriod());
+            digest.update(buffer.array(), 0, buffer.position());
+        }
+        // separates the tasks from the platform
+        digest.update((byte) 0xff);
+        List<MCP> sortedMcps = new ArrayList<MCP>(mcps);
+        sortedMcps.sort(Comparator.comparingInt(MCP::getId));
+        for (MCP mcp : sortedMcps) {
+            List<Core> cores = new ArrayList<Core>(mcp.getCores());
+            cores.sort(Comparator.comparingInt(Core::getId));
+            for (Core core : cores) {
+                buffer.clear();
+                buffer.putInt(mcp.getId()).putInt(core.getId()).putDouble(core.getWCETFactor());
+                digest.update(buffer.array(), 0, buffer.position());
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private File entry(String fingerprint) {
+        return new File(directory, fingerprint + ".xml");
+    }
+
+    private void touch(File file) {
+        clock = Math.max(System.currentTimeMillis(), clock + 1);
+        file.setLastModified(clock);
+    }
+
+    /*
+     * the path of the cached solution of the instance, or null if there is none
+     * */
+    public String lookup(String fingerprint) {
+        File file = entry(fingerprint);
+        if (!file.isFile()) {
+            return null;
+        }
+        touch(file);
+        return file.getPath();
+    }
+
+    /*
+     * copies the solution into the cache as the one of the instance (replacing the previous one), then
+     * deletes the least recently used entries over the size of the cache
+     * */
+    public void store(String fingerprint, String solutionPath) throws IOException {
+        File file = entry(fingerprint);
+        // written next to the entry first, so that another run never reads half a file
+        File temporary = File.createTempFile("entry", ".tmp", directory);
+        try {
+            Files.copy(new File(solutionPath).toPath(), temporary.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            temporary.delete();
+        }
+        touch(file);
+        evict();
+    }
+
+    void evict() {
+        File[] entries = directory.listFiles((dir, name) -> name.endsWith(".xml"));
+        if (entries == null || entries.length <= maxEntries) {
+            return;
+        }
+        Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+        for (int k = 0; k < entries.length - maxEntries; k++) {
+            entries[k].delete();
+        }
+    }
+
+    int size() {
+        File[] entries = directory.listFiles((dir, name) -> name.endsWith(".xml"));
+        return entries == null ? 0 : entries.length;
+    }
+}
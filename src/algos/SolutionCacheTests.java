@@ -0,0 +1,190 @@
+package algos;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import mcp.Core;
+import mcp.InstanceGenerator;
+import mcp.MCP;
+import mcp.Parser;
+import mcp.ScaledWcet;
+import mcp.SolutionValidator;
+import mcp.Task;
+import mcp.XMLExport;
+
+import org.junit.Test;
+
+public class SolutionCacheTests {
+
+	static File temporaryDirectory() throws Exception {
+		File directory = Files.createTempDirectory("cache").toFile();
+		directory.deleteOnExit();
+		return directory;
+	}
+
+	static String solution(String content) throws Exception {
+		File file = File.createTempFile("solution", ".xml");
+		file.deleteOnExit();
+		try (FileWriter writer = new FileWriter(file)) {
+			writer.write(content);
+		}
+		return file.getPath();
+	}
+
+	@Test
+	public void testFingerprintIgnoresOrder() {
+		List<Task> tasks = SpeculativeAnnealingTests.tasks(3);
+		List<MCP> mcps = SpeculativeAnnealingTests.mcps();
+		String fingerprint = SolutionCache.fingerprint(tasks, mcps);
+
+		List<Task> shuffled = new ArrayList<Task>(tasks);
+		Collections.shuffle(shuffled, new java.util.Random(1));
+		List<MCP> reversed = new ArrayList<MCP>();
+		for (MCP mcp : mcps) {
+			List<Core> cores = new ArrayList<Core>(mcp.getCores());
+			Collections.reverse(cores);
+			reversed.add(0, new MCP(mcp.getId(), cores));
+		}
+		assertEquals(fingerprint, SolutionCache.fingerprint(shuffled, reversed));
+
+		// another factor is another instance
+		List<MCP> other = SpeculativeAnnealingTests.mcps();
+		other.get(1).getCores().set(2, new Core(2, 1.0));
+		assertFalse(fingerprint.equals(SolutionCache.fingerprint(tasks, other)));
+		// and so is another deadline
+		List<Task> changed = SpeculativeAnnealingTests.tasks(3);
+		changed.get(5).setDeadline(changed.get(5).getDeadline() - 1);
+		assertFalse(fingerprint.equals(SolutionCache.fingerprint(changed, mcps)));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvicted() throws Exception {
+		SolutionCache cache = new SolutionCache(temporaryDirectory().getPath(), 2);
+		assertNull(cache.lookup("a"));
+		cache.store("a", solution("<Solution>a</Solution>"));
+		cache.store("b", solution("<Solution>b</Solution>"));
+		assertEquals("<Solution>a</Solution>", new String(Files.readAllBytes(new File(cache.lookup("a")).toPath())));
+		// b is now the least recently used
+		cache.store("c", solution("<Solution>c</Solution>"));
+		assertEquals(2, cache.size());
+		assertNotNull(cache.lookup("a"));
+		assertNull(cache.lookup("b"));
+		assertNotNull(cache.lookup("c"));
+
+		// replacing an entry does not grow the cache
+		cache.store("c", solution("<Solution>better c</Solution>"));
+		assertEquals(2, cache.size());
+		assertEquals("<Solution>better c</Solution>", new String(Files.readAllBytes(new File(cache.lookup("c")).toPath())));
+	}
+
+	// exports the assignment on the cores to a temporary Solution file, like Algorithms.main
+	static String export(Algorithms algo) throws Exception {
+		File file = File.createTempFile("solution", ".xml");
+		file.deleteOnExit();
+		XMLExport exporter = new XMLExport();
+		for (MCP mcp : algo.mcps) {
+			exporter.addMCP(mcp);
+		}
+		exporter.exportTasksToXML(file.getPath());
+		return file.getPath();
+	}
+
+	static Algorithms load(String model, List<Task> tasks) {
+		return load(new Algorithms(), model, tasks);
+	}
+
+	static Algorithms load(Algorithms algo, String model, List<Task> tasks) {
+		algo.verbose = false;
+		algo.setSeed(3);
+		algo.mcps = Parser.createMCPsFromXml(model);
+		ScaledWcet.precompute(tasks, algo.mcps);
+		return algo;
+	}
+
+	static byte[] read(String path) throws Exception {
+		return Files.readAllBytes(new File(path).toPath());
+	}
+
+	static String instance() throws Exception {
+		File file = File.createTempFile("instance", ".xml");
+		file.deleteOnExit();
+		InstanceGenerator.generate(file.getPath(), 3, 24, 1, 4, 0.4);
+		return file.getPath();
+	}
+
+	// a cold run that fills the cache, returns the fingerprint of the instance
+	static String fill(SolutionCache cache, String model) throws Exception {
+		List<Task> tasks = Parser.createTasksFromXml(model);
+		Algorithms cold = load(model, tasks);
+		String fingerprint = SolutionCache.fingerprint(tasks, cold.mcps);
+		cold.initialAssignation(tasks);
+		cold.perfectLaxity();
+		cold.simulatedAnnealing(35, 0.001, 20000, 1.1, 0.90);
+		assertTrue(cold.cacheSolution(cache, fingerprint, model, export(cold), Double.MAX_VALUE));
+		return fingerprint;
+	}
+
+	@Test
+	public void testWarmStartWithSolver() throws Exception {
+		String model = instance();
+		SolutionCache cache = new SolutionCache(temporaryDirectory().getPath(), 10);
+		String fingerprint = fill(cache, model);
+
+		// -cache-warm -decompose: starts from the cached assignment, then partitions the tasks again
+		List<Task> tasks = Parser.createTasksFromXml(model);
+		Algorithms warm = load(model, tasks);
+		warm.repairAssignation(tasks, Parser.createPlacementsFromXml(cache.lookup(fingerprint)), null);
+		warm.perfectLaxity();
+		double cachedCost = warm.cost();
+		DecompositionSolver decomposition = new DecompositionSolver(warm);
+		decomposition.rounds = 2;
+		decomposition.solve(tasks, 0.5, 0.01, 20000, 1.1, 0.90);
+		AlgorithmsTests.assertAssignedOnce(warm.mcps, tasks.size());
+		boolean stored = warm.cacheSolution(cache, fingerprint, model, export(warm), cachedCost);
+		assertEquals(warm.cost() < cachedCost, stored);
+		SolutionValidator.Model parsed = SolutionValidator.readModel(model);
+		assertTrue(SolutionValidator.validate(parsed, cache.lookup(fingerprint)).isValid());
+
+		// a task placed twice is never stored, whatever its cost
+		byte[] entry = read(cache.lookup(fingerprint));
+		for (Core core : warm.mcps.get(0).getCores()) {
+			if (!core.getTasks().contains(tasks.get(0))) {
+				core.addTask(tasks.get(0));
+				core.calcWCRT();
+				break;
+			}
+		}
+		assertFalse(warm.cacheSolution(cache, fingerprint, model, export(warm), Double.MAX_VALUE));
+		assertTrue(Arrays.equals(entry, read(cache.lookup(fingerprint))));
+	}
+
+	@Test
+	public void testParetoOnCacheHit() throws Exception {
+		String model = instance();
+		SolutionCache cache = new SolutionCache(temporaryDirectory().getPath(), 10);
+		String fingerprint = fill(cache, model);
+
+		// -pareto on a hit: nothing is annealed, the front is the cached assignment
+		List<Task> tasks = Parser.createTasksFromXml(model);
+		MultiObjectiveAnnealing algo = (MultiObjectiveAnnealing) load(new MultiObjectiveAnnealing(8), model, tasks);
+		algo.repairAssignation(tasks, Parser.createPlacementsFromXml(cache.lookup(fingerprint)), null);
+		algo.perfectLaxity();
+		List<String> front = algo.exportFront(export(algo), Long.MAX_VALUE);
+		assertEquals(1, front.size());
+		for (String path : front) {
+			new File(path).deleteOnExit();
+		}
+		SolutionValidator.Report report = SolutionValidator.validate(SolutionValidator.readModel(model), front.get(0));
+		assertTrue(report.problems.toString(), report.isValid());
+		assertEquals(SolutionValidator.validate(SolutionValidator.readModel(model), cache.lookup(fingerprint)).totalLaxity,
+				report.totalLaxity);
+		AlgorithmsTests.assertAssignedOnce(algo.mcps, tasks.size());
+	}
+}
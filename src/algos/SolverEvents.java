@@ -0,0 +1,111 @@
+package algos;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * The Java Flight Recorder events of the solver. They are only recorded when a recording is running
+ * (-jfr, or -XX:StartFlightRecording), otherwise creating and committing them costs next to nothing.
+ * There are few of them: one per phase, one per temperature level (or block of iterations of the large
+ * neighbourhood search) and, for the response time analysis, one per core at the end of the annealing
+ * with the counters the core kept (an event per analysis would cost more than the analysis itself).
+ * */
+public class SolverEvents {
+
+    @Name("algos.Parse")
+    @Label("Parse")
+    @Category("Task Scheduling")
+    @StackTrace(false)
+    public static class Parse extends Event {
+        @Label("Path")
+        String path;
+        @Label("Tasks")
+        int tasks;
+        @Label("Cores")
+        int cores;
+    }
+
+    @Name("algos.InitialAssignment")
+    @Label("Initial Assignment")
+    @Category("Task Scheduling")
+    @StackTrace(false)
+    public static class InitialAssignment extends Event {
+        @Label("Method")
+        @Description("random, repair or cache")
+        String method;
+        @Label("Tasks")
+        int tasks;
+    }
+
+    @Name("algos.TemperatureLevel")
+    @Label("Temperature Level")
+    @Category("Task Scheduling")
+    @StackTrace(false)
+    public static class TemperatureLevel extends Event {
+        @Label("Temperature")
+        double temperature;
+        @Label("Moves")
+        long moves;
+        @Label("Accepted Moves")
+        long acceptances;
+        @Label("Best Cost")
+        double bestCost;
+        @Label("Current Cost")
+        double currentCost;
+        @Label("RTA Iterations")
+        @Description("Fixed point iterations of the response time analysis of all the cores during the level")
+        long rtaIterations;
+    }
+
+    @Name("algos.SearchIterations")
+    @Label("Large Neighbourhood Search Iterations")
+    @Category("Task Scheduling")
+    @StackTrace(false)
+    public static class SearchIterations extends Event {
+        @Label("Iterations")
+        long iterations;
+        @Label("Accepted Iterations")
+        long acceptances;
+        @Label("Best Cost")
+        double bestCost;
+        @Label("Current Cost")
+        double currentCost;
+        @Label("RTA Iterations")
+        @Description("Fixed point iterations of the response time analysis of the cores and of the insertions evaluated")
+        long rtaIterations;
+    }
+
+    @Name("algos.CoreAnalysis")
+    @Label("Core Response Time Analysis")
+    @Category("Task Scheduling")
+    @StackTrace(false)
+    public static class CoreAnalysis extends Event {
+        @Label("MCP")
+        int mcp;
+        @Label("Core")
+        int core;
+        @Label("Tasks")
+        int tasks;
+        @Label("Analyses")
+        @Description("Response times computed on the core so far, one per task and analysis")
+        long analyses;
+        @Label("Iterations")
+        @Description("Fixed point iterations of these analyses")
+        long iterations;
+    }
+
+    @Name("algos.Export")
+    @Label("Export")
+    @Category("Task Scheduling")
+    @StackTrace(false)
+    public static class Export extends Event {
+        @Label("Path")
+        String path;
+        @Label("Total Laxity")
+        long laxity;
+    }
+}
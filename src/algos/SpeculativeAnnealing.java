@@ -0,0 +1,226 @@
+package algos;
+
+import mcp.Core;
+import mcp.Evaluation;
+import mcp.MCP;
+import mcp.Task;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Simulated annealing that gives exactly the results of Algorithms with the same seed, but evaluates
+ * the moves of the cold part of the schedule in parallel.
+ *
+ * When the acceptance rate drops below threshold, almost every move is rejected and leaves the
+ * configuration as it was. So the next depth moves are drawn at once against the current
+ * configuration, as if all their predecessors were rejected, and evaluated concurrently with
+ * Core.evaluate. The steps then consume them in order: a rejected one costs nothing more, the first
+ * accepted one is applied and the moves after it are dropped, the generator being rewound to where
+ * they were drawn from so that the chain goes on with the very numbers a serial run would draw.
+ * A serial step draws its Metropolis number only for a move that does not lower the cost, which is the
+ * case of every rejected move: so every speculated move is drawn with its number, and the generator is
+ * rewound to just before that number when the accepted move lowered the cost.
+ * When the acceptance rate is high the steps are the serial ones.
+ * */
+public class SpeculativeAnnealing extends Algorithms {
+
+    private final int depth;
+    private final int threads;
+    private ForkJoinPool pool; // only while an annealing runs, the steps outside of one are serial
+    private final ReplayableRandom replayable;
+
+    // speculation starts below this acceptance rate, measured over windows of window steps
+    double threshold = 0.03;
+    int window = 1000;
+    private int windowSteps = 0;
+    private int windowAccepted = 0;
+    private double acceptanceRate = 1;
+
+    // the speculated moves, the generator state they were drawn from (marks[depth] is the state after the last one)
+    // and the state before their Metropolis number
+    private final Move[] moves;
+    private final long[] marks;
+    private final long[] acceptanceMarks;
+    private final Evaluation[] fromEvaluations, toEvaluations;
+    private int drawn = 0; // number of moves of the current speculation
+    private int consumed = 0; // number of them the steps went through
+
+    // the laxity and unschedulable tasks of the whole configuration, kept up to date by the speculative steps
+    private boolean totalsValid = false;
+    private long totalLaxity;
+    private int totalUnschedulable;
+    private int totalTasks;
+
+    // number of steps that went through a speculation
+    long speculativeSteps = 0;
+
+    public SpeculativeAnnealing(int depth, int threads) {
+        this.depth = depth;
+        this.threads = threads;
+        replayable = new ReplayableRandom();
+        random = replayable;
+        moves = new Move[depth];
+        marks = new long[depth + 1];
+        acceptanceMarks = new long[depth];
+        fromEvaluations = new Evaluation[depth];
+        toEvaluations = new Evaluation[depth];
+        for (int k = 0; k < depth; k++) {
+            moves[k] = new Move();
+            fromEvaluations[k] = new Evaluation();
+            toEvaluations[k] = new Evaluation();
+        }
+    }
+
+    private void computeTotals() {
+        totalLaxity = 0;
+        totalUnschedulable = 0;
+        totalTasks = 0;
+        for (MCP mcp : mcps) {
+            for (Core core : mcp.getCores()) {
+                totalLaxity += core.getLaxity();
+                totalUnschedulable += core.getUnschedulable();
+                totalTasks += core.getTasks().size();
+            }
+        }
+        totalsValid = true;
+    }
+
+    @Override
+    long rtaIterations() {
+        long iterations = super.rtaIterations();
+        for (int k = 0; k < depth; k++) {
+            iterations += fromEvaluations[k].getRtaIterations() + toEvaluations[k].getRtaIterations();
+        }
+        return iterations;
+    }
+
+    // evaluates the moves first..last-1, splitting the range between the workers
+    private class EvaluateMoves extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int first, last;
+
+        EvaluateMoves(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first == 1) {
+                evaluate(first);
+            } else {
+                int middle = (first + last) >>> 1;
+                invokeAll(new EvaluateMoves(first, middle), new EvaluateMoves(middle, last));
+            }
+        }
+    }
+
+    private void evaluate(int k) {
+        Move move = moves[k];
+        Task task = move.from.getTasks().get(move.index);
+        move.from.evaluate(null, move.index, fromEvaluations[k]);
+        move.to.evaluate(task, -1, toEvaluations[k]);
+    }
+
+    // draws the next depth moves of the chain, with their acceptance numbers, and evaluates them
+    private void speculate() {
+        if (!totalsValid) {
+            computeTotals();
+        }
+        for (int k = 0; k < depth; k++) {
+            marks[k] = replayable.mark();
+            drawMove(moves[k]);
+            acceptanceMarks[k] = replayable.mark();
+            moves[k].acceptance = random.nextDouble();
+        }
+        marks[depth] = replayable.mark();
+        drawn = depth;
+        consumed = 0;
+
+        if (pool == null) {
+            for (int k = 0; k < depth; k++) {
+                evaluate(k);
+            }
+        } else {
+            pool.invoke(new EvaluateMoves(0, depth));
+        }
+    }
+
+    // drops the moves not consumed yet, the generator goes back to where the first of them was drawn
+    private void dropSpeculation() {
+        if (consumed < drawn) {
+            replayable.rewind(marks[consumed]);
+        }
+        drawn = 0;
+        consumed = 0;
+    }
+
+    private void countAcceptance(boolean accepted) {
+        windowSteps++;
+        if (accepted) {
+            windowAccepted++;
+        }
+        if (windowSteps == window) {
+            acceptanceRate = (double) windowAccepted / window;
+            windowSteps = 0;
+            windowAccepted = 0;
+        }
+    }
+
+    @Override
+    void simulatedAnnealing(double T0, double BETA0, int MAXTIME, double BETA, double ALPHA) {
+        totalsValid = false; // the configuration may have changed since the last annealing
+        pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        try {
+            super.simulatedAnnealing(T0, BETA0, MAXTIME, BETA, ALPHA);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+        }
+        dropSpeculation(); // the annealing may stop in the middle of a speculation
+    }
+
+    @Override
+    double step(double currentCost, double temperature) {
+        if (consumed == drawn) {
+            if (acceptanceRate >= threshold) {
+                totalsValid = false;
+                currentCost = super.step(currentCost, temperature);
+                countAcceptance(accepted);
+                return currentCost;
+            }
+            speculate();
+        }
+
+        // the same decision as Algorithms.step, with the cost of the evaluated move
+        steps++;
+        speculativeSteps++;
+        int k = consumed++;
+        Move move = moves[k];
+        long laxity = totalLaxity - move.from.getLaxity() - move.to.getLaxity()
+                + fromEvaluations[k].laxity + toEvaluations[k].laxity;
+        int unschedulable = totalUnschedulable - move.from.getUnschedulable() - move.to.getUnschedulable()
+                + fromEvaluations[k].unschedulable + toEvaluations[k].unschedulable;
+        double newCost = cost(laxity, unschedulable, totalTasks);
+        double costDiff = newCost - currentCost;
+        accepted = costDiff < 0 || move.acceptance < Math.exp(-costDiff / temperature);
+        countAcceptance(accepted);
+        if (!accepted) {
+            return currentCost;
+        }
+
+        // the moves after this one were drawn against the configuration it changes, and a serial step
+        // that lowers the cost does not draw the Metropolis number
+        move.to.addTask(move.from.getTaskByIndex(move.index));
+        totalLaxity = laxity;
+        totalUnschedulable = unschedulable;
+        replayable.rewind(costDiff < 0 ? acceptanceMarks[k] : marks[k + 1]);
+        drawn = 0;
+        consumed = 0;
+        return newCost;
+    }
+}
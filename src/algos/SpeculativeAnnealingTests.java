@@ -0,0 +1,118 @@
+package algos;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import mcp.Core;
+import mcp.MCP;
+import mcp.Task;
+
+import org.junit.Test;
+
+public class SpeculativeAnnealingTests {
+
+	// a random instance, the same for the same seed
+	static List<Task> tasks(long seed) {
+		Random random = new Random(seed);
+		List<Task> tasks = new ArrayList<Task>();
+		long[] periods = {500L, 1000L, 2000L, 4000L, 8000L};
+		for (int i = 0; i < 40; i++) {
+			long period = periods[random.nextInt(periods.length)];
+			tasks.add(new Task(i, 10 + random.nextInt((int) (period / 8)), period, period));
+		}
+		return tasks;
+	}
+
+	static List<MCP> mcps() {
+		List<MCP> mcps = new ArrayList<MCP>();
+		double[] factors = {1.1, 1.3, 0.9};
+		for (int m = 0; m < 2; m++) {
+			MCP mcp = new MCP(m);
+			for (int c = 0; c < 3; c++) {
+				mcp.addCore(new Core(c, factors[c]));
+			}
+			mcps.add(mcp);
+		}
+		return mcps;
+	}
+
+	// runs the annealing and returns the core of every task, as mcp * 100 + core
+	static int[] anneal(Algorithms algo, int MAXTIME) {
+		List<Task> tasks = tasks(3);
+		algo.verbose = false;
+		algo.setSeed(7);
+		algo.mcps = mcps();
+		algo.initialAssignation(tasks);
+		algo.perfectLaxity();
+		algo.simulatedAnnealing(35, 0.001, MAXTIME, 1.1, 0.90);
+
+		int[] assignment = new int[tasks.size()];
+		for (MCP mcp : algo.mcps) {
+			for (Core core : mcp.getCores()) {
+				for (Task task : core.getTasks()) {
+					assignment[task.getId()] = mcp.getId() * 100 + core.getId();
+				}
+			}
+		}
+		return assignment;
+	}
+
+	@Test
+	public void testReplayableRandomIsRandom() {
+		Random random = new Random(42);
+		ReplayableRandom replayable = new ReplayableRandom(42);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(random.nextDouble(), replayable.nextDouble(), 0);
+		}
+		long mark = replayable.mark();
+		double first = replayable.nextDouble();
+		replayable.nextInt();
+		replayable.rewind(mark);
+		assertEquals(first, replayable.nextDouble(), 0);
+	}
+
+	@Test
+	public void testSameResultsAsSerial() {
+		Algorithms serial = new Algorithms();
+		int[] expected = anneal(serial, 50000);
+
+		// always speculating
+		SpeculativeAnnealing speculative = new SpeculativeAnnealing(16, 4);
+		speculative.threshold = 1.01;
+		assertArrayEquals(expected, anneal(speculative, 50000));
+		assertEquals(serial.steps, speculative.steps);
+		assertEquals(serial.cost(), speculative.cost(), 0);
+		assertTrue(speculative.speculativeSteps > 0);
+
+		// switching between serial and speculative steps
+		speculative = new SpeculativeAnnealing(8, 2);
+		assertArrayEquals(expected, anneal(speculative, 50000));
+		assertEquals(serial.steps, speculative.steps);
+	}
+
+	// the iterations of the analyses of the cores alone
+	static long coreIterations(Algorithms algo) {
+		long iterations = 0;
+		for (MCP mcp : algo.mcps) {
+			for (Core core : mcp.getCores()) {
+				iterations += core.getRtaIterations();
+			}
+		}
+		return iterations;
+	}
+
+	@Test
+	public void testRtaIterationsCountEvaluations() {
+		SpeculativeAnnealing speculative = new SpeculativeAnnealing(16, 1);
+		speculative.threshold = 1.01;
+		anneal(speculative, 20000);
+		assertTrue(speculative.rtaIterations() > coreIterations(speculative));
+
+		BatchedAnnealing batched = new BatchedAnnealing(4, 1);
+		anneal(batched, 20000);
+		assertTrue(batched.rtaIterations() > coreIterations(batched));
+	}
+}
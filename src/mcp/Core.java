@@ -1,37 +1,30 @@
 package mcp;
 
-import java.lang.reflect.Array;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class Core {
 
     private int id;
-    private boolean sorted = false;
     private boolean validWcrt = false;
     private double WCETFactor;
-    private List<Task> tasks;
-
-    public void sortTasks() {
-        Comparator<Task> byPriority = Comparator.comparing(Task::getPriority);
-        tasks.sort(byPriority);
-    }
+    private int factorSlot; // see ScaledWcet
+    // the tasks are always in priority order, see TaskList
+    private TaskList tasks;
+    // the analyses done by getWCRT and calcWCRT (the ones of evaluate are counted in the Evaluation)
+    private final RtaCounter rta = new RtaCounter();
+    // the inner sum of the analysis, see InterferenceKernel.select
+    static final InterferenceKernel KERNEL = InterferenceKernel.select();
 
     public Core(int id, double WCETFactor) {
         this.id = id;
         this.WCETFactor = WCETFactor;
-        this.tasks = new ArrayList<Task>();
+        this.factorSlot = ScaledWcet.slotOf(WCETFactor);
+        this.tasks = new TaskList(factorSlot);
     }
 
     public Core(int id, double WCETFactor, List<Task> tasks) {
-        this.id = id;
-        this.WCETFactor = WCETFactor;
-        this.tasks = tasks;
+        this(id, WCETFactor);
+        addTaskList(tasks);
     }
 
     public double getWCETFactor() {
@@ -42,29 +35,30 @@ public class Core {
         return id;
     }
 
+    public int getFactorSlot() {
+        return factorSlot;
+    }
+
     public List<Task> getTasks() {
         return tasks;
     }
 
     public boolean addTask(Task t) {
-        sorted = false;
         validWcrt = false;
-        return tasks.add((Task) t);
+        tasks.insert(t);
+        return true;
     }
 
     public boolean addTaskList(List<Task> tasks) {
-        sorted = false;
-        boolean added = this.tasks.addAll(tasks);
-        if (added) {
-            sortTasks();
-            sorted = true;
+        for (Task task : tasks) {
+            addTask(task);
         }
-        return added;
+        return !tasks.isEmpty();
     }
 
     public Task getTaskByIndex(int idx) {
         validWcrt = false;
-        return tasks.remove(idx);
+        return tasks.removeAt(idx);
     }
 
     public Task getRandomTask() {
@@ -74,21 +68,16 @@ public class Core {
     }
 
     public Task swapRandomTask(Task t1) {
-        sorted = false;
         validWcrt = false;
         int i = (int) Math.random() * tasks.size();
         Task t2 = getTaskByIndex(i);
-        tasks.add(i, t1);
+        tasks.insert(t1);
         return t2;
     }
 
 
     public int getUnschedulable() {
         int unschedulable = 0;
-        if (!sorted) {
-            Collections.sort(tasks);
-            sorted = true;
-        }
         if (!validWcrt) {
             calcWCRT();
         }
@@ -111,10 +100,6 @@ public class Core {
      * This will be called everytime the list of task changes.
      * */
     public void calcWCRT() {
-        if (!sorted) {
-            Collections.sort(tasks);
-            sorted = true;
-        }
         for (int i = 0; i < tasks.size(); i++) {
             tasks.get(i).setWCRT((getWCRT(i)));
 
@@ -124,16 +109,28 @@ public class Core {
 
     }
 
-    // not here
     public void removeTaskById(int id) {
-        int index = 0;
-        for (Task aTask : tasks) {
-            if (aTask.getId() == id) {
-                break;
-            }
-            index++;
+        validWcrt = false;
+        tasks.removeById(id);
+    }
+
+    /*
+     * removes all the tasks of the core
+     * */
+    public void clearTasks() {
+        validWcrt = false;
+        tasks.removeAllTasks();
+    }
+
+    /*
+     * the utilization of the core, the sum of WCET * factor / period over its tasks
+     * */
+    public double getUtilization() {
+        double utilization = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            utilization += tasks.wcets[i] / tasks.periods[i];
         }
-        getTaskByIndex(index);
+        return utilization;
     }
 
     /*
@@ -141,26 +138,87 @@ public class Core {
      * specified index.
      * The method used is discussed in Section 4.4.2 in the 
      * "Hard Real-Time--Periodic scheduling" chapter.
+     * The WCETs are scaled by the factor once, when a task is added (see
+     * ScaledWcet and TaskList).
      * */
     public int getWCRT(int i) {
+        return responseTime(i, tasks.periods, tasks.wcets, tasks.ceilWcets[i], tasks.deadlines[i],
+                (i == 0) ? 0 : tasks.get(i - 1).getWCRT(), rta);
+    }
+
+    /*
+     * the fixed point iteration of getWCRT for the task at index i, the tasks before it
+     * are the ones with a higher priority. interference is the starting point of the
+     * iteration, the WCRT of the task just before. The iterations are added to counter.
+     * */
+    static int responseTime(int i, double[] periods, double[] wcets, double ci, long deadline, double interference,
+                            RtaCounter counter) {
+        return responseTime(i, periods, wcets, ci, deadline, interference, counter, KERNEL);
+    }
 
-        long deadline = tasks.get(i).getDeadline();
-        double ci = Math.ceil(tasks.get(i).getWCET() * WCETFactor);
-        double interference, intSum, responseTime;
-        interference = (i == 0) ? 0 : tasks.get(i - 1).getWCRT();
-        //interference = 0;
+    static int responseTime(int i, double[] periods, double[] wcets, double ci, long deadline, double interference,
+                            RtaCounter counter, InterferenceKernel kernel) {
+        double responseTime;
+        counter.analyses++;
         do {
-            intSum = 0;
+            counter.iterations++;
             responseTime = interference + ci;
-            for (int j = 0; j < i; j++) {
-                intSum += Math.ceil(responseTime / tasks.get(j).getPeriod())
-                        * (tasks.get(j).getWCET() * WCETFactor);
-            }
-            interference = intSum;
+            interference = kernel.interference(responseTime, periods, wcets, i);
         } while (interference + ci > responseTime && responseTime < deadline);
 
         return (int) Math.ceil(responseTime);
+    }
+
+    /*
+     * computes the laxity and the number of unschedulable tasks the core would have with the task
+     * added (when added is not null) and the task at index removed (when removed >= 0), without
+     * changing the core. Several threads can evaluate moves on the same core at the same time,
+     * as long as each one has its own Evaluation and nobody changes the core meanwhile.
+     * */
+    public void evaluate(Task added, int removed, Evaluation out) {
+        int size = tasks.size();
+        int inserted = added == null ? -1 : tasks.insertionPoint(added.getRank());
+        out.ensureCapacity(size + 1);
+
+        // the hypothetical list of tasks, in priority order
+        int n = 0;
+        for (int k = 0; k <= size; k++) {
+            if (k == inserted) {
+                out.periods[n] = added.getPeriod();
+                out.deadlines[n] = added.getDeadline();
+                out.wcets[n] = added.getScaledWcet(factorSlot);
+                out.ceilWcets[n] = added.getCeilWcet(factorSlot);
+                n++;
+            }
+            if (k < size && k != removed) {
+                out.periods[n] = tasks.periods[k];
+                out.deadlines[n] = tasks.deadlines[k];
+                out.wcets[n] = tasks.wcets[k];
+                out.ceilWcets[n] = tasks.ceilWcets[k];
+                n++;
+            }
+        }
+
+        out.laxity = 0;
+        out.unschedulable = 0;
+        int wcrt = 0;
+        for (int i = 0; i < n; i++) {
+            wcrt = responseTime(i, out.periods, out.wcets, out.ceilWcets[i], out.deadlines[i], (i == 0) ? 0 : wcrt,
+                    out.rta);
+            out.laxity += out.deadlines[i] - wcrt;
+            if (wcrt > out.deadlines[i]) {
+                out.unschedulable++;
+            }
+        }
+    }
+
+    // number of response time analyses done by getWCRT so far, and of fixed point iterations they took
+    public long getRtaAnalyses() {
+        return rta.analyses;
+    }
 
+    public long getRtaIterations() {
+        return rta.iterations;
     }
 
     /*
@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -32,5 +33,107 @@ public class CoreTests {
 	public void testGetWCRT() {
 		assertEquals(10, core.getWCRT(3));
 	}
-	
+
+	@Test
+	public void testUtilizationAndClear() {
+		assertEquals(1.0 / 4 + 1.0 / 5 + 2.0 / 6 + 1.0 / 11, core.getUtilization(), 1e-12);
+		core.clearTasks();
+		assertEquals(0, core.getTasks().size());
+		assertEquals(0, core.getUtilization(), 0);
+		core.addTask(tasks.get(2));
+		assertEquals(0, core.getTasks().indexOf(tasks.get(2)));
+		assertEquals(3, core.getLaxity());
+	}
+
+	@Test
+	public void testScaledWCET() {
+		// 3200 * 1.1 is 3520.0000000000005 in double, the exported WCRT has always been 3521
+		Core fast = new Core(0, 1.1);
+		fast.addTask(new Task(1, 3200, 80000L, 80000L));
+		fast.calcWCRT();
+		assertEquals(3521, fast.getTasks().get(0).getWCRT());
+	}
+
+	// the analysis as it was written before the WCETs were scaled in advance
+	int[] unscaledWCRT(List<Task> sorted, double WCETFactor) {
+		int[] wcrt = new int[sorted.size()];
+		for (int i = 0; i < sorted.size(); i++) {
+			long deadline = sorted.get(i).getDeadline();
+			double ci = Math.ceil(sorted.get(i).getWCET() * WCETFactor);
+			double interference = (i == 0) ? 0 : wcrt[i - 1], intSum, responseTime;
+			do {
+				intSum = 0;
+				responseTime = interference + ci;
+				for (int j = 0; j < i; j++) {
+					intSum += Math.ceil(responseTime / sorted.get(j).getPeriod())
+							* (sorted.get(j).getWCET() * WCETFactor);
+				}
+				interference = intSum;
+			} while (interference + ci > responseTime && responseTime < deadline);
+			wcrt[i] = (int) Math.ceil(responseTime);
+		}
+		return wcrt;
+	}
+
+	@Test
+	public void testScaledWcetPrecomputed() {
+		Task task = new Task(1, 3200, 80000L, 80000L);
+		Core fast = new Core(0, 1.1);
+		int slot = fast.getFactorSlot();
+		// computed on the fly before precompute, read from the table after, the same doubles
+		assertEquals(3200 * 1.1, task.getScaledWcet(slot), 0);
+		assertEquals(3521, task.getCeilWcet(slot));
+		List<MCP> mcps = new ArrayList<MCP>();
+		mcps.add(new MCP(0));
+		mcps.get(0).addCore(fast);
+		List<Task> loaded = new ArrayList<Task>();
+		loaded.add(task);
+		ScaledWcet.precompute(loaded, mcps);
+		assertEquals(3200 * 1.1, task.getScaledWcet(slot), 0);
+		assertEquals(3521, task.getCeilWcet(slot));
+
+		// a factor seen after the instance was loaded
+		Core slow = new Core(1, 1.7);
+		assertEquals(3200 * 1.7, task.getScaledWcet(slow.getFactorSlot()), 0);
+		assertEquals((long) Math.ceil(3200 * 1.7), task.getCeilWcet(slow.getFactorSlot()));
+
+		// another WCET drops the table
+		task.setWCET(100);
+		assertEquals(100 * 1.1, task.getScaledWcet(slot), 0);
+		assertEquals(111, task.getCeilWcet(slot));
+	}
+
+	@Test
+	public void testWCRTMatchesUnscaledAnalysis() {
+		Random random = new Random(0);
+		double[] factors = {0.5, 0.7, 0.9, 1.0, 1.1, 1.2, 1.3, 1.4, 1.5};
+		long[] periods = {5000L, 10000L, 20000L, 40000L, 80000L};
+		for (int run = 0; run < 2000; run++) {
+			double factor = factors[random.nextInt(factors.length)];
+			Core core = new Core(0, factor);
+			for (int id = 0; id < 1 + random.nextInt(20); id++) {
+				long period = periods[random.nextInt(periods.length)];
+				core.addTask(new Task(id, 1 + random.nextInt(4000), period, period));
+			}
+			core.calcWCRT();
+			List<Task> sorted = new ArrayList<Task>(core.getTasks());
+			int[] expected = unscaledWCRT(sorted, factor);
+			for (int i = 0; i < sorted.size(); i++) {
+				assertEquals(expected[i], sorted.get(i).getWCRT());
+			}
+		}
+	}
+
+	@Test
+	public void testEvaluate() {
+		Evaluation evaluation = new Evaluation();
+		Task added = new Task(5, 2, 4L, 4L);
+		core.evaluate(added, 1, evaluation);
+
+		core.removeTaskById(2);
+		core.addTask(added);
+		assertEquals(core.getLaxity(), evaluation.laxity);
+		assertEquals(core.getUnschedulable(), evaluation.unschedulable);
+	}
+
 }
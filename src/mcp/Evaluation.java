@@ -0,0 +1,34 @@
+package mcp;
+
+import java.util.Arrays;
+
+/*
+ * The result of Core.evaluate, with the arrays it works in so that an evaluation does not allocate
+ * once they are big enough. One Evaluation must not be used by two threads at the same time.
+ * */
+public class Evaluation {
+
+    public int laxity;
+    public int unschedulable;
+    // the analyses of all the evaluations done with this object
+    final RtaCounter rta = new RtaCounter();
+
+    double[] periods = new double[0];
+    long[] deadlines = new long[0];
+    double[] wcets = new double[0];
+    double[] ceilWcets = new double[0];
+
+    void ensureCapacity(int size) {
+        if (periods.length < size) {
+            int length = Math.max(size, 2 * periods.length);
+            periods = Arrays.copyOf(periods, length);
+            deadlines = Arrays.copyOf(deadlines, length);
+            wcets = Arrays.copyOf(wcets, length);
+            ceilWcets = Arrays.copyOf(ceilWcets, length);
+        }
+    }
+
+    public long getRtaIterations() {
+        return rta.iterations;
+    }
+}
@@ -0,0 +1,59 @@
+package mcp;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+
+/*
+ * Writes random Model files in the format of small.xml, medium.xml and large.xml.
+ * The periods and WCETFactors are drawn from the values the bundled instances use, the WCETs are
+ * drawn so that the total utilization of the tasks is about the requested fraction of the cores.
+ *
+ * usage: InstanceGenerator path seed tasks mcps coresPerMcp utilization
+ * */
+public class InstanceGenerator {
+
+    static final long[] PERIODS = {5000L, 10000L, 20000L, 40000L, 80000L};
+    static final double[] FACTORS = {0.5, 0.7, 0.9, 1.0, 1.1, 1.2, 1.3, 1.4, 1.5};
+
+    public static void generate(String path, long seed, int tasks, int mcps, int coresPerMcp, double utilization) {
+        Random random = new Random(seed);
+        StringBuilder xml = new StringBuilder();
+        xml.append("<Model>\n  <Application>\n");
+        // every task gets a random share of the total utilization
+        double[] shares = new double[tasks];
+        double total = 0;
+        for (int i = 0; i < tasks; i++) {
+            shares[i] = 0.1 + random.nextDouble();
+            total += shares[i];
+        }
+        double totalUtilization = utilization * mcps * coresPerMcp;
+        for (int i = 0; i < tasks; i++) {
+            long period = PERIODS[random.nextInt(PERIODS.length)];
+            long wcet = Math.max(1, Math.round(shares[i] / total * totalUtilization * period));
+            xml.append(String.format("    <Task Deadline=\"%d\" Id=\"%d\" Period=\"%d\" WCET=\"%d\" />\n",
+                    period, i, period, wcet));
+        }
+        xml.append("  </Application>\n  <Platform>\n");
+        for (int m = 0; m < mcps; m++) {
+            xml.append(String.format("    <MCP Id=\"%d\">\n", m));
+            for (int c = 0; c < coresPerMcp; c++) {
+                xml.append(String.format("      <Core Id=\"%d\" WCETFactor=\"%s\" />\n",
+                        c, FACTORS[random.nextInt(FACTORS.length)]));
+            }
+            xml.append("    </MCP>\n");
+        }
+        xml.append("  </Platform>\n</Model>\n");
+
+        try (FileWriter writer = new FileWriter(path)) {
+            writer.write(xml.toString());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static void main(String[] args) {
+        generate(args[0], Long.parseLong(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                Integer.parseInt(args[4]), Double.parseDouble(args[5]));
+    }
+}
@@ -0,0 +1,66 @@
+package mcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class InstanceGeneratorTests {
+
+	static String generate(long seed, int tasks, int mcps, int coresPerMcp, double utilization) throws Exception {
+		File file = File.createTempFile("instance", ".xml");
+		file.deleteOnExit();
+		InstanceGenerator.generate(file.getPath(), seed, tasks, mcps, coresPerMcp, utilization);
+		return file.getPath();
+	}
+
+	static byte[] read(String path) throws Exception {
+		return Files.readAllBytes(new File(path).toPath());
+	}
+
+	@Test
+	public void testSeededDeterminism() throws Exception {
+		byte[] first = read(generate(11, 50, 2, 4, 0.6));
+		assertTrue(Arrays.equals(first, read(generate(11, 50, 2, 4, 0.6))));
+		assertFalse(Arrays.equals(first, read(generate(12, 50, 2, 4, 0.6))));
+	}
+
+	@Test
+	public void testUtilizationAndRanges() throws Exception {
+		String path = generate(5, 200, 3, 4, 0.5);
+		List<Task> tasks = Parser.createTasksFromXml(path);
+		List<MCP> mcps = Parser.createMCPsFromXml(path);
+		assertEquals(200, tasks.size());
+		assertEquals(3, mcps.size());
+
+		double utilization = 0;
+		for (Task task : tasks) {
+			assertTrue(task.getPeriod() + "", contains(InstanceGenerator.PERIODS, task.getPeriod()));
+			assertEquals(task.getPeriod(), task.getDeadline());
+			assertTrue(task.getWCET() >= 1);
+			utilization += (double) task.getWCET() / task.getPeriod();
+		}
+		// 0.5 of the 12 cores, up to the rounding of the WCETs
+		assertEquals(0.5 * 12, utilization, 0.01);
+
+		for (MCP mcp : mcps) {
+			assertEquals(4, mcp.getCores().size());
+			for (Core core : mcp.getCores()) {
+				assertTrue(Arrays.stream(InstanceGenerator.FACTORS).anyMatch(f -> f == core.getWCETFactor()));
+			}
+		}
+	}
+
+	static boolean contains(long[] values, long value) {
+		for (long v : values) {
+			if (v == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,85 @@
+package mcp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * Times the response time analysis of cores with more and more tasks with the kernel Core uses
+ * (see InterferenceKernel.select), and checks the WCRTs against the scalar kernel afterwards.
+ * Run it once per kernel, every run only ever uses one kernel in Core like a real solve does:
+ *
+ *   java --add-modules jdk.incubator.vector mcp.InterferenceBenchmark
+ *   java --add-modules jdk.incubator.vector -Drta.kernel=vector mcp.InterferenceBenchmark
+ *
+ * usage: InterferenceBenchmark [-reps n]
+ * */
+public class InterferenceBenchmark {
+
+    // a core with n tasks and a total utilization of about 0.8
+    static Core core(int n, long seed) {
+        Random random = new Random(seed);
+        Core core = new Core(0, 1.1);
+        long[] periods = {1000L, 2000L, 4000L, 5000L, 8000L, 10000L, 20000L, 40000L};
+        for (int id = 0; id < n; id++) {
+            long period = periods[random.nextInt(periods.length)];
+            int wcet = (int) Math.max(1, period * 0.8 / n * (0.5 + random.nextDouble()) / 1.1);
+            core.addTask(new Task(id, wcet, period, period));
+        }
+        return core;
+    }
+
+    // the WCRTs of the scalar kernel, task after task
+    static int[] scalarWCRT(Core core) {
+        TaskList tasks = (TaskList) core.getTasks();
+        int[] wcrt = new int[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            wcrt[i] = Core.responseTime(i, tasks.periods, tasks.wcets, tasks.ceilWcets[i], tasks.deadlines[i],
+                    (i == 0) ? 0 : wcrt[i - 1], new RtaCounter(), new ScalarInterference());
+        }
+        return wcrt;
+    }
+
+    // ns per analysis of the whole core
+    static double time(Core core, int reps) {
+        for (int r = 0; r < reps / 4; r++) {
+            core.calcWCRT();
+        }
+        long start = System.nanoTime();
+        for (int r = 0; r < reps; r++) {
+            core.calcWCRT();
+        }
+        return (double) (System.nanoTime() - start) / reps;
+    }
+
+    public static void main(String[] args) {
+        int reps = 20000;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-reps")) {
+                reps = Integer.parseInt(args[++i]);
+            }
+        }
+        System.out.println("kernel: " + Core.KERNEL.getClass().getSimpleName());
+
+        List<Core> cores = new ArrayList<Core>();
+        System.out.format("%8s %16s\n", "tasks", "analysis (ns)");
+        for (int n = 8; n <= 512; n *= 2) {
+            Core core = core(n, n);
+            cores.add(core);
+            System.out.format("%8d %16.0f\n", n, time(core, Math.max(10, reps * 8 / n)));
+        }
+
+        // the check comes after the timings, so that they only ever saw one kernel
+        for (Core core : cores) {
+            int[] expected = scalarWCRT(core);
+            core.calcWCRT();
+            for (int i = 0; i < expected.length; i++) {
+                if (core.getTasks().get(i).getWCRT() != expected[i]) {
+                    System.out.println("DIFFERENT WCRT with " + core.getTasks().size() + " tasks, task " + i);
+                    System.exit(1);
+                }
+            }
+        }
+        System.out.println("WCRTs identical to the scalar kernel");
+    }
+}
@@ -0,0 +1,32 @@
+package mcp;
+
+/*
+ * The inner sum of the response time analysis: the interference of the count first (higher priority)
+ * tasks on a task with this response time, sum of ceil(responseTime / periods[j]) * wcets[j].
+ *
+ * The sum is always done in the order of the tasks, starting from 0, like the analysis always did:
+ * the WCRTs depend on the rounding of the doubles and every kernel must give the very same values.
+ * */
+interface InterferenceKernel {
+
+    double interference(double responseTime, double[] periods, double[] wcets, int count);
+
+    /*
+     * the kernel used by Core, chosen once at startup with -Drta.kernel: scalar (the default) or vector.
+     * The vector one is compiled apart (src-vector) and needs the jdk.incubator.vector module
+     * (--add-modules jdk.incubator.vector), without either we fall back to the scalar one.
+     * The scalar one is the default because it is faster: the ordered sum is a chain of dependent
+     * additions that bounds both kernels, and the divisions it waits for already overlap in the scalar
+     * loop (see InterferenceBenchmark).
+     * */
+    static InterferenceKernel select() {
+        if (System.getProperty("rta.kernel", "scalar").equals("vector")) {
+            try {
+                return (InterferenceKernel) Class.forName("mcp.VectorInterference").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                System.err.println("the vector kernel is not available (" + e + "), using the scalar one");
+            }
+        }
+        return new ScalarInterference();
+    }
+}
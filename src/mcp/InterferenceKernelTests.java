@@ -0,0 +1,72 @@
+package mcp;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class InterferenceKernelTests {
+
+	// the vector kernel, null when the JVM runs without the jdk.incubator.vector module
+	static InterferenceKernel vectorKernel() {
+		try {
+			return (InterferenceKernel) Class.forName("mcp.VectorInterference").getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return null;
+		}
+	}
+
+	@Test
+	public void testSameSumsAsScalar() {
+		InterferenceKernel vector = vectorKernel();
+		if (vector == null) {
+			return;
+		}
+		Random random = new Random(5);
+		long[] periods = {500L, 1000L, 2000L, 4000L, 8000L, 10000L, 40000L, 80000L};
+		double[] factors = {0.9, 1.1, 1.2, 1.3};
+		for (int run = 0; run < 2000; run++) {
+			int count = 1 + random.nextInt(100);
+			double factor = factors[random.nextInt(factors.length)];
+			double[] p = new double[count];
+			double[] c = new double[count];
+			for (int j = 0; j < count; j++) {
+				p[j] = periods[random.nextInt(periods.length)];
+				c[j] = (1 + random.nextInt(3000)) * factor;
+			}
+			// integral response times (multiples of a period) as well as arbitrary ones
+			double r = random.nextBoolean() ? periods[random.nextInt(periods.length)] : random.nextDouble() * 200000;
+			assertEquals(Double.doubleToLongBits(ScalarInterference.sum(r, p, c, count)),
+					Double.doubleToLongBits(vector.interference(r, p, c, count)));
+		}
+	}
+
+	@Test
+	public void testSameWCRTsAsScalar() {
+		InterferenceKernel vector = vectorKernel();
+		if (vector == null) {
+			return;
+		}
+		Random random = new Random(6);
+		for (int run = 0; run < 200; run++) {
+			int n = 1 + random.nextInt(80);
+			Core core = new Core(0, run % 2 == 0 ? 1.1 : 1.3);
+			for (int id = 0; id < n; id++) {
+				long period = 1000L * (1 + random.nextInt(40));
+				core.addTask(new Task(id, 1 + random.nextInt((int) (period / n)), period, period));
+			}
+			TaskList tasks = (TaskList) core.getTasks();
+			double previousScalar = 0, previousVector = 0;
+			for (int i = 0; i < n; i++) {
+				int scalar = Core.responseTime(i, tasks.periods, tasks.wcets, tasks.ceilWcets[i], tasks.deadlines[i],
+						previousScalar, new RtaCounter(), new ScalarInterference());
+				int vectorized = Core.responseTime(i, tasks.periods, tasks.wcets, tasks.ceilWcets[i], tasks.deadlines[i],
+						previousVector, new RtaCounter(), vector);
+				assertEquals(scalar, vectorized);
+				previousScalar = scalar;
+				previousVector = vectorized;
+			}
+		}
+	}
+}
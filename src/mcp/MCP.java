@@ -8,6 +8,9 @@ public class MCP {
 	private int id;
 	
 	private List<Core> cores;
+	// coresById[id] is the core with this id, rebuilt when cores were added
+	private Core[] coresById = new Core[0];
+	private int indexedCores = 0;
 	
 	public MCP(int id) {
 		this.id = id;
@@ -32,10 +35,25 @@ public class MCP {
 	}
 	
 	public Core getCore(int id) {
-		return cores.stream()
-			.filter(c->c.getId() == id)
-			.findFirst()
-			.orElse(null);
+		if (indexedCores != cores.size()) {
+			indexCores();
+		}
+		return id >= 0 && id < coresById.length ? coresById[id] : null;
+	}
+
+	private void indexCores() {
+		int maxId = -1;
+		for (Core c : cores) {
+			maxId = Math.max(maxId, c.getId());
+		}
+		coresById = new Core[maxId + 1];
+		// like the search it replaces, the first core wins when two have the same id
+		for (int i = cores.size() - 1; i >= 0; i--) {
+			if (cores.get(i).getId() >= 0) {
+				coresById[cores.get(i).getId()] = cores.get(i);
+			}
+		}
+		indexedCores = cores.size();
 	}
 	
 	/*
@@ -109,5 +109,39 @@ public class Parser {
         return mcps;
     }
 
+    /**
+     * createPlacementsFromXml method that reads a previous solution (the format written by XMLExport)
+     * @param pathToXml path to the xml file that contains the solution
+     * @return an ArrayList with one placement per Task node of the solution
+     */
+    public static ArrayList<Placement> createPlacementsFromXml(String pathToXml){
+        ArrayList<Placement> placements = new ArrayList<Placement>();
+        try {
+            // we open the xml file with the solution
+            File fXmlFile = new File(pathToXml);
+
+            // we create the objects needed for the parser
+            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
+            Document doc = dBuilder.parse(fXmlFile);
+            doc.getDocumentElement().normalize();
+
+            // we get all the Task nodes
+            NodeList tasksNodes = doc.getElementsByTagName("Task");
+
+            for (int i = 0; i < tasksNodes.getLength(); i++){
+                Element e = (Element) tasksNodes.item(i);
+                placements.add(new Placement(Integer.parseInt(e.getAttribute("id")),
+                                             Integer.parseInt(e.getAttribute("MCP")),
+                                             Integer.parseInt(e.getAttribute("Core")),
+                                             Integer.parseInt(e.getAttribute("WCRT"))
+                                             ));
+            }
+        } catch (Exception e){
+            e.printStackTrace();
+        }
+        return placements;
+    }
+
 
 }
@@ -0,0 +1,35 @@
+package mcp;
+
+/*
+ * A task of a previous Solution file: the core it was placed on and the WCRT it had there.
+ * */
+public class Placement {
+
+    private int taskId;
+    private int mcpId;
+    private int coreId;
+    private int wcrt;
+
+    public Placement(int taskId, int mcpId, int coreId, int wcrt) {
+        this.taskId = taskId;
+        this.mcpId = mcpId;
+        this.coreId = coreId;
+        this.wcrt = wcrt;
+    }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    public int getMcpId() {
+        return mcpId;
+    }
+
+    public int getCoreId() {
+        return coreId;
+    }
+
+    public int getWCRT() {
+        return wcrt;
+    }
+}
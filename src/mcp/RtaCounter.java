@@ -0,0 +1,10 @@
+package mcp;
+
+/*
+ * Number of response time analyses (one per task) and of fixed point iterations they took.
+ * Plain fields, a counter belongs to a single core or to a single Evaluation.
+ * */
+class RtaCounter {
+    long analyses;
+    long iterations;
+}
@@ -0,0 +1,20 @@
+package mcp;
+
+/*
+ * The interference sum as the analysis always computed it, one task after the other.
+ * */
+class ScalarInterference implements InterferenceKernel {
+
+    @Override
+    public double interference(double responseTime, double[] periods, double[] wcets, int count) {
+        return sum(responseTime, periods, wcets, count);
+    }
+
+    static double sum(double responseTime, double[] periods, double[] wcets, int count) {
+        double intSum = 0;
+        for (int j = 0; j < count; j++) {
+            intSum += Math.ceil(responseTime / periods[j]) * wcets[j];
+        }
+        return intSum;
+    }
+}
@@ -0,0 +1,55 @@
+package mcp;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * The WCETs scaled by the WCETFactor of a core, computed once per task and distinct factor instead
+ * of at every iteration of the response time analysis.
+ *
+ * Every distinct WCETFactor gets a slot, and every task keeps WCET * factor and ceil(WCET * factor)
+ * per slot (see Task.getScaledWcet), filled by precompute when the instance is loaded. The scaled
+ * WCETs stay the double products the analysis always used: they are not always exact
+ * (3200 * 1.1 = 3520.0000000000005), and the WCRTs we export depend on it (that task has a WCRT of
+ * 3521 alone on a core), so an integer version would not give the same results.
+ * */
+public class ScaledWcet {
+
+    private static volatile double[] factors = new double[0];
+
+    /*
+     * the slot of the factor, a new one is created the first time a factor is seen
+     * */
+    public static synchronized int slotOf(double factor) {
+        for (int slot = 0; slot < factors.length; slot++) {
+            if (factors[slot] == factor) {
+                return slot;
+            }
+        }
+        double[] newFactors = Arrays.copyOf(factors, factors.length + 1);
+        newFactors[factors.length] = factor;
+        factors = newFactors;
+        return factors.length - 1;
+    }
+
+    public static double factor(int slot) {
+        return factors[slot];
+    }
+
+    /*
+     * fills the tables of every task for every factor of the platform, once when the instance is loaded, so
+     * that nothing is computed or written later when tasks move between cores (the solvers read them from
+     * several threads)
+     * */
+    public static void precompute(List<Task> tasks, List<MCP> mcps) {
+        int slots = 0;
+        for (MCP mcp : mcps) {
+            for (Core core : mcp.getCores()) {
+                slots = Math.max(slots, core.getFactorSlot() + 1);
+            }
+        }
+        for (Task task : tasks) {
+            task.scale(slots);
+        }
+    }
+}
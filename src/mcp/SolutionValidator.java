@@ -0,0 +1,306 @@
+package mcp;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Checks Solution files (the format of XMLExport) against their Model:
+ *  - every task of the model is assigned exactly once, to a core that exists
+ *  - the WCRT of every task is the one the analysis of Core gives on its core
+ *  - every task meets its deadline
+ *  - the "Total Laxity" comment, when there is one, is the total laxity of the assignment.
+ * The files are read with a streaming (StAX) parser, and the solutions are checked in parallel,
+ * each one on its own copy of the cores and tasks of the model.
+ *
+ * usage: SolutionValidator [-threads n] -model model.xml (solution.xml | directory)... [-model model.xml ...]
+ * every solution (or Solution file of a directory) is checked against the last -model before it.
+ * */
+public class SolutionValidator {
+
+    private static final Pattern TOTAL_LAXITY = Pattern.compile("Total Laxity: (-?\\d+)");
+
+    // the tasks and the platform of a model, never changed, copied for every solution
+    public static class Model {
+        final List<Task> tasks = new ArrayList<Task>();
+        final Map<Integer, Integer> indexById = new HashMap<Integer, Integer>();
+        // {mcp id, core id} and WCETFactor of every core, in the order of the file
+        final List<int[]> coreIds = new ArrayList<int[]>();
+        final List<Double> factors = new ArrayList<Double>();
+    }
+
+    // the outcome of the check of one solution
+    public static class Report {
+        public final String path;
+        public final List<String> problems = new ArrayList<String>();
+        public int tasks;
+        public long totalLaxity;
+        public long bytes;
+
+        Report(String path) {
+            this.path = path;
+        }
+
+        public boolean isValid() {
+            return problems.isEmpty();
+        }
+    }
+
+    static int intAttribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        if (value == null) {
+            throw new IllegalArgumentException("missing attribute " + name + " on " + reader.getLocalName()
+                    + " at line " + reader.getLocation().getLineNumber());
+        }
+        return Integer.parseInt(value.trim());
+    }
+
+    public static Model readModel(String path) throws IOException, XMLStreamException {
+        Model model = new Model();
+        try (InputStream in = new FileInputStream(path)) {
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+            int mcpId = -1;
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                switch (reader.getLocalName()) {
+                    case "Task":
+                        Task task = new Task(intAttribute(reader, "Id"), intAttribute(reader, "WCET"),
+                                Long.parseLong(reader.getAttributeValue(null, "Deadline").trim()),
+                                Long.parseLong(reader.getAttributeValue(null, "Period").trim()));
+                        model.indexById.put(task.getId(), model.tasks.size());
+                        model.tasks.add(task);
+                        break;
+                    case "MCP":
+                        mcpId = intAttribute(reader, "Id");
+                        break;
+                    case "Core":
+                        model.coreIds.add(new int[]{mcpId, intAttribute(reader, "Id")});
+                        model.factors.add(Double.parseDouble(reader.getAttributeValue(null, "WCETFactor").trim()));
+                        break;
+                    default:
+                }
+            }
+            reader.close();
+        }
+        return model;
+    }
+
+    /*
+     * checks one solution against its model
+     * */
+    public static Report validate(Model model, String path) {
+        Report report = new Report(path);
+        report.bytes = new File(path).length();
+
+        // a fresh copy of the platform and of the tasks
+        List<MCP> mcps = new ArrayList<MCP>();
+        for (int c = 0; c < model.coreIds.size(); c++) {
+            int[] ids = model.coreIds.get(c);
+            MCP mcp = findMCP(mcps, ids[0]);
+            if (mcp == null) {
+                mcp = new MCP(ids[0]);
+                mcps.add(mcp);
+            }
+            mcp.addCore(new Core(ids[1], model.factors.get(c)));
+        }
+        Task[] tasks = new Task[model.tasks.size()];
+        int[] reportedWcrt = new int[tasks.length];
+        boolean[] assigned = new boolean[tasks.length];
+
+        Long reportedLaxity = null;
+        try (InputStream in = new FileInputStream(path)) {
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.COMMENT) {
+                    Matcher matcher = TOTAL_LAXITY.matcher(reader.getText());
+                    if (matcher.find()) {
+                        reportedLaxity = Long.parseLong(matcher.group(1));
+                    }
+                    continue;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT || !reader.getLocalName().equals("Task")) {
+                    continue;
+                }
+                int id = intAttribute(reader, "id");
+                int mcpId = intAttribute(reader, "MCP");
+                int coreId = intAttribute(reader, "Core");
+                int wcrt = intAttribute(reader, "WCRT");
+
+                Integer index = model.indexById.get(id);
+                if (index == null) {
+                    report.problems.add("task " + id + " is not in the model");
+                    continue;
+                }
+                if (assigned[index]) {
+                    report.problems.add("task " + id + " is assigned more than once");
+                    continue;
+                }
+                MCP mcp = findMCP(mcps, mcpId);
+                Core core = mcp == null ? null : mcp.getCore(coreId);
+                if (core == null) {
+                    report.problems.add("task " + id + " is assigned to the unknown core " + coreId + " of MCP " + mcpId);
+                    continue;
+                }
+                Task original = model.tasks.get(index);
+                tasks[index] = new Task(original.getId(), original.getWCET(), original.getDeadline(), original.getPeriod());
+                assigned[index] = true;
+                reportedWcrt[index] = wcrt;
+                core.addTask(tasks[index]);
+                report.tasks++;
+            }
+            reader.close();
+        } catch (IOException | XMLStreamException | IllegalArgumentException e) {
+            report.problems.add("unreadable solution: " + e.getMessage());
+            return report;
+        }
+
+        for (int t = 0; t < tasks.length; t++) {
+            if (!assigned[t]) {
+                report.problems.add("task " + model.tasks.get(t).getId() + " is not assigned");
+            }
+        }
+
+        // the analysis of every core, then the checks of every task
+        for (MCP mcp : mcps) {
+            for (Core core : mcp.getCores()) {
+                core.calcWCRT();
+                report.totalLaxity += core.getLaxity();
+            }
+        }
+        for (int t = 0; t < tasks.length; t++) {
+            if (tasks[t] == null) {
+                continue;
+            }
+            int wcrt = tasks[t].getWCRT();
+            if (wcrt != reportedWcrt[t]) {
+                report.problems.add("task " + tasks[t].getId() + " has a WCRT of " + wcrt + ", not " + reportedWcrt[t]);
+            }
+            if (wcrt > tasks[t].getDeadline()) {
+                report.problems.add("task " + tasks[t].getId() + " misses its deadline " + tasks[t].getDeadline()
+                        + " (WCRT " + wcrt + ")");
+            }
+        }
+        if (reportedLaxity != null && reportedLaxity != report.totalLaxity) {
+            report.problems.add("the total laxity is " + report.totalLaxity + ", not " + reportedLaxity);
+        }
+        return report;
+    }
+
+    private static MCP findMCP(List<MCP> mcps, int id) {
+        for (MCP mcp : mcps) {
+            if (mcp.getId() == id) {
+                return mcp;
+            }
+        }
+        return null;
+    }
+
+    // true if the root element of the file is a Solution
+    static boolean isSolution(File file) {
+        try (InputStream in = new FileInputStream(file)) {
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    return reader.getLocalName().equals("Solution");
+                }
+            }
+        } catch (IOException | XMLStreamException e) {
+            return false;
+        }
+        return false;
+    }
+
+    // the solutions of the argument, the Solution files of a directory
+    static List<String> solutions(String path) {
+        File file = new File(path);
+        if (!file.isDirectory()) {
+            return Arrays.asList(path);
+        }
+        List<String> solutions = new ArrayList<String>();
+        File[] files = file.listFiles((dir, name) -> name.endsWith(".xml"));
+        if (files != null) {
+            Arrays.sort(files);
+            for (File f : files) {
+                if (isSolution(f)) {
+                    solutions.add(f.getPath());
+                }
+            }
+        }
+        return solutions;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Model model = null;
+        List<Model> models = new ArrayList<Model>();
+        List<String> paths = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-threads": threads = Integer.parseInt(args[++i]); break;
+                case "-model": model = readModel(args[++i]); break;
+                default:
+                    if (model == null) {
+                        throw new IllegalArgumentException("no -model before " + args[i]);
+                    }
+                    for (String solution : solutions(args[i])) {
+                        models.add(model);
+                        paths.add(solution);
+                    }
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<Report>> futures = new ArrayList<Future<Report>>();
+        for (int k = 0; k < paths.size(); k++) {
+            final Model m = models.get(k);
+            final String path = paths.get(k);
+            futures.add(pool.submit(() -> validate(m, path)));
+        }
+
+        int invalid = 0;
+        long tasks = 0, bytes = 0;
+        try {
+            for (Future<Report> future : futures) {
+                Report report = future.get();
+                tasks += report.tasks;
+                bytes += report.bytes;
+                if (report.isValid()) {
+                    System.out.println(report.path + ": ok, total laxity " + report.totalLaxity);
+                } else {
+                    invalid++;
+                    System.out.println(report.path + ": " + report.problems.size() + " problems");
+                    for (String problem : report.problems) {
+                        System.out.println("  " + problem);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.format("%d solutions, %d invalid, %.3f s: %.1f solutions/s, %.0f tasks/s, %.2f MB/s (%d threads)\n",
+                paths.size(), invalid, seconds, paths.size() / seconds, tasks / seconds, bytes / seconds / 1e6, threads);
+        if (invalid > 0) {
+            System.exit(1);
+        }
+    }
+}
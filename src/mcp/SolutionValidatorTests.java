@@ -0,0 +1,118 @@
+package mcp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SolutionValidatorTests {
+
+	SolutionValidator.Model model;
+
+	static String write(String name, String content) throws IOException {
+		File file = File.createTempFile(name, ".xml");
+		file.deleteOnExit();
+		try (FileWriter writer = new FileWriter(file)) {
+			writer.write(content);
+		}
+		return file.getPath();
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		model = SolutionValidator.readModel(write("model", "<Model>\n<Application>\n"
+				+ "<Task Deadline=\"4\" Id=\"0\" Period=\"4\" WCET=\"1\" />\n"
+				+ "<Task Deadline=\"5\" Id=\"1\" Period=\"5\" WCET=\"1\" />\n"
+				+ "<Task Deadline=\"6\" Id=\"2\" Period=\"6\" WCET=\"2\" />\n"
+				+ "</Application>\n<Platform>\n<MCP Id=\"0\">\n"
+				+ "<Core Id=\"0\" WCETFactor=\"1.0\" />\n<Core Id=\"1\" WCETFactor=\"2.0\" />\n"
+				+ "</MCP>\n</Platform>\n</Model>\n"));
+	}
+
+	@Test
+	public void testExportedSolutionIsValid() throws Exception {
+		Core core0 = new Core(0, 1.0);
+		Core core1 = new Core(1, 2.0);
+		core0.addTask(new Task(0, 1, 4L, 4L));
+		core0.addTask(new Task(2, 2, 6L, 6L));
+		core1.addTask(new Task(1, 1, 5L, 5L));
+		ArrayList<Core> cores = new ArrayList<Core>();
+		cores.add(core0);
+		cores.add(core1);
+		ArrayList<MCP> mcps = new ArrayList<MCP>();
+		mcps.add(new MCP(0, cores));
+		String path = File.createTempFile("solution", ".xml").getPath();
+		new File(path).deleteOnExit();
+		new XMLExport(mcps).exportTasksToXML(path);
+
+		SolutionValidator.Report report = SolutionValidator.validate(model, path);
+		assertTrue(report.problems.toString(), report.isValid());
+		assertEquals(3, report.tasks);
+		// 4 - 1, 6 - 3, 5 - 2
+		assertEquals(9, report.totalLaxity);
+	}
+
+	@Test
+	public void testExportAfterUndoneMove() throws Exception {
+		Core core0 = new Core(0, 1.0);
+		Core core1 = new Core(1, 2.0);
+		Task task = new Task(2, 2, 6L, 6L);
+		core0.addTask(new Task(0, 1, 4L, 4L));
+		core0.addTask(task);
+		core1.addTask(new Task(1, 1, 5L, 5L));
+		core0.getLaxity();
+		// the move is evaluated on core 1, then undone like a rejected annealing step
+		core0.removeTaskById(2);
+		core1.addTask(task);
+		core1.getLaxity();
+		core1.removeTaskById(2);
+		core0.addTask(task);
+		ArrayList<Core> cores = new ArrayList<Core>();
+		cores.add(core0);
+		cores.add(core1);
+		ArrayList<MCP> mcps = new ArrayList<MCP>();
+		mcps.add(new MCP(0, cores));
+		String path = File.createTempFile("solution", ".xml").getPath();
+		new File(path).deleteOnExit();
+		new XMLExport(mcps).exportTasksToXML(path);
+
+		SolutionValidator.Report report = SolutionValidator.validate(model, path);
+		assertTrue(report.problems.toString(), report.isValid());
+	}
+
+	@Test
+	public void testProblems() throws Exception {
+		String path = write("solution", "<Solution>\n"
+				+ "<Task Core=\"0\" MCP=\"0\" WCRT=\"1\" id=\"0\"/>\n"
+				+ "<Task Core=\"0\" MCP=\"0\" WCRT=\"2\" id=\"0\"/>\n" // twice
+				+ "<Task Core=\"3\" MCP=\"0\" WCRT=\"2\" id=\"1\"/>\n" // unknown core
+				+ "<Task Core=\"0\" MCP=\"0\" WCRT=\"2\" id=\"2\"/>\n" // the WCRT is 3
+				+ "<Task Core=\"0\" MCP=\"0\" WCRT=\"2\" id=\"7\"/>\n" // not in the model
+				+ "</Solution><!--Total Laxity: 10-->");
+		SolutionValidator.Report report = SolutionValidator.validate(model, path);
+		assertFalse(report.isValid());
+		assertTrue(report.problems.contains("task 0 is assigned more than once"));
+		assertTrue(report.problems.contains("task 1 is assigned to the unknown core 3 of MCP 0"));
+		assertTrue(report.problems.contains("task 1 is not assigned"));
+		assertTrue(report.problems.contains("task 2 has a WCRT of 3, not 2"));
+		assertTrue(report.problems.contains("task 7 is not in the model"));
+		assertTrue(report.problems.contains("the total laxity is 6, not 10"));
+		assertEquals(6, report.problems.size());
+	}
+
+	@Test
+	public void testDeadlineMiss() throws Exception {
+		String path = write("solution", "<Solution>\n"
+				+ "<Task Core=\"1\" MCP=\"0\" WCRT=\"2\" id=\"0\"/>\n"
+				+ "<Task Core=\"1\" MCP=\"0\" WCRT=\"4\" id=\"1\"/>\n"
+				+ "<Task Core=\"1\" MCP=\"0\" WCRT=\"8\" id=\"2\"/>\n"
+				+ "</Solution>");
+		SolutionValidator.Report report = SolutionValidator.validate(model, path);
+		assertTrue(report.problems.contains("task 2 misses its deadline 6 (WCRT 8)"));
+	}
+}
@@ -4,10 +4,14 @@ public class Task implements Comparable<Task>{
 
 private Long deadline;
 private Long period;
-private Integer wcrt;
+private int wcrt; // primitive, it is written at every analysis
 private Integer id;
 private Integer WCET;
 private Integer priority;
+private long rank;
+// WCET scaled by the factor of every ScaledWcet slot, filled once by ScaledWcet.precompute and only read afterwards
+private long[] ceilWcet = new long[0];
+private double[] scaledWcet = new double[0];
 
     @Override
     public int compareTo(Task t) {
@@ -24,8 +28,62 @@ private Integer priority;
         this.period = p;
         this.priority = Math.toIntExact(1/period); // added priority calculation here (shortest period -> higher priority)
         this.wcrt = 0;
+        updateRank();
+    }
+
+    /*
+     * the rank packs the period and the id in one long, so that comparing ranks gives the order of compareTo
+     * (periods and ids are positive and fit in 31 bits)
+     * */
+    private void updateRank() {
+        this.rank = (period << 32) | id;
+    }
+
+    public long getRank() {
+        return rank;
+    }
+
+    /*
+     * fills the scaled WCETs of the slots 0..slots-1. Only called when the instance is loaded, before the
+     * solvers (and their threads) read them, so the getters never write
+     * */
+    void scale(int slots) {
+        long[] ceil = new long[slots];
+        double[] scaled = new double[slots];
+        for (int k = 0; k < slots; k++) {
+            scaled[k] = WCET * ScaledWcet.factor(k);
+            ceil[k] = (long) Math.ceil(scaled[k]);
+        }
+        ceilWcet = ceil;
+        scaledWcet = scaled;
+    }
+
+    /*
+     * ceil(WCET * factor) of the slot, in time units. A slot that was not precomputed (a task that was not
+     * loaded with its platform) gets the same value computed again
+     * */
+    public long getCeilWcet(int slot) {
+        return slot < ceilWcet.length ? ceilWcet[slot] : (long) Math.ceil(getScaledWcet(slot));
+    }
+
+    /*
+     * WCET * factor of the slot
+     * */
+    public double getScaledWcet(int slot) {
+        return slot < scaledWcet.length ? scaledWcet[slot] : WCET * ScaledWcet.factor(slot);
     }
     
+    /*
+     * a copy for a solver that works on its own cores (its own WCRT), the scaled WCETs are shared since they
+     * are only read
+     * */
+    public Task copy() {
+        Task copy = new Task(id, WCET, deadline, period);
+        copy.ceilWcet = ceilWcet;
+        copy.scaledWcet = scaledWcet;
+        return copy;
+    }
+
     public Long getDeadline() {
         return deadline;
     }
@@ -40,6 +98,7 @@ private Integer priority;
 
     public void setPeriod(Long period) {
         this.period = period;
+        updateRank();
     }
 
     public Integer getId() {
@@ -48,6 +107,7 @@ private Integer priority;
 
     public void setId(Integer id) {
         this.id = id;
+        updateRank();
     }
 
     public Integer getWCET() {
@@ -56,13 +116,15 @@ private Integer priority;
 
     public void setWCET(Integer wCET) {
         WCET = wCET;
+        ceilWcet = new long[0];
+        scaledWcet = new double[0];
     }
 
-    public Integer getWCRT() {
+    public int getWCRT() {
     	return this.wcrt;
     }
     
-    public void setWCRT(Integer wcrt) {
+    public void setWCRT(int wcrt) {
     	this.wcrt =  wcrt;
     }
     public Integer getPriority() {
@@ -79,6 +141,7 @@ private Integer priority;
         this.id = id;
         WCET = wCET;
         this.priority = priority;
+        updateRank();
     }
     
 
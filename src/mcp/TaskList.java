@@ -0,0 +1,157 @@
+package mcp;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+/*
+ * The tasks of a core, always kept in priority order (shortest period first, then smallest id,
+ * the order of Task.compareTo).
+ *
+ * The order is given by the precomputed Task.getRank, so an insertion is a binary search plus an
+ * array shift and the list never has to be sorted again. slotById gives the position of a task from
+ * its id, so a removal by id does not have to scan the list either.
+ * Next to the tasks, the list keeps the values the response time analysis needs in primitive arrays,
+ * with the WCETs already scaled by the factor of the core (see ScaledWcet).
+ * The list itself is read only, the tasks are added and removed through the core.
+ * */
+public class TaskList extends AbstractList<Task> {
+
+    private final int factorSlot;
+
+    private Task[] tasks = new Task[8];
+    private long[] ranks = new long[8];
+    private int size = 0;
+    private int[] slotById = new int[0]; // -1 when the task is not in the list
+
+    double[] periods = new double[8];
+    long[] deadlines = new long[8];
+    double[] wcets = new double[8]; // WCET * factor
+    double[] ceilWcets = new double[8]; // ceil(WCET * factor)
+
+    public TaskList() {
+        this(ScaledWcet.slotOf(1.0));
+    }
+
+    public TaskList(int factorSlot) {
+        this.factorSlot = factorSlot;
+    }
+
+    @Override
+    public Task get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return tasks[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /*
+     * the position of the task with this id, -1 if it is not in the list
+     * */
+    public int indexOfId(int id) {
+        return id < slotById.length ? slotById[id] : -1;
+    }
+
+    // the slots of the tasks between from and to (excluded) have moved
+    private void updateSlots(int from, int to) {
+        for (int k = from; k < to; k++) {
+            slotById[tasks[k].getId()] = k;
+        }
+    }
+
+    /*
+     * the position a task of this rank would be inserted at (binary search of the first task with a bigger rank)
+     * */
+    public int insertionPoint(long rank) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ranks[mid] <= rank) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * inserts the task at its place in the priority order, returns its position
+     * */
+    public int insert(Task task) {
+        if (size == tasks.length) {
+            tasks = Arrays.copyOf(tasks, 2 * size);
+            ranks = Arrays.copyOf(ranks, 2 * size);
+            periods = Arrays.copyOf(periods, 2 * size);
+            deadlines = Arrays.copyOf(deadlines, 2 * size);
+            wcets = Arrays.copyOf(wcets, 2 * size);
+            ceilWcets = Arrays.copyOf(ceilWcets, 2 * size);
+        }
+        int id = task.getId();
+        if (id >= slotById.length) {
+            int length = slotById.length;
+            slotById = Arrays.copyOf(slotById, Math.max(id + 1, 2 * length));
+            Arrays.fill(slotById, length, slotById.length, -1);
+        }
+
+        long rank = task.getRank();
+        int low = insertionPoint(rank);
+        System.arraycopy(tasks, low, tasks, low + 1, size - low);
+        System.arraycopy(ranks, low, ranks, low + 1, size - low);
+        System.arraycopy(periods, low, periods, low + 1, size - low);
+        System.arraycopy(deadlines, low, deadlines, low + 1, size - low);
+        System.arraycopy(wcets, low, wcets, low + 1, size - low);
+        System.arraycopy(ceilWcets, low, ceilWcets, low + 1, size - low);
+        tasks[low] = task;
+        ranks[low] = rank;
+        periods[low] = task.getPeriod();
+        deadlines[low] = task.getDeadline();
+        wcets[low] = task.getScaledWcet(factorSlot);
+        ceilWcets[low] = task.getCeilWcet(factorSlot);
+        size++;
+        updateSlots(low, size);
+        return low;
+    }
+
+    /*
+     * removes and returns the task at this position
+     * */
+    public Task removeAt(int index) {
+        Task task = get(index);
+        System.arraycopy(tasks, index + 1, tasks, index, size - index - 1);
+        System.arraycopy(ranks, index + 1, ranks, index, size - index - 1);
+        System.arraycopy(periods, index + 1, periods, index, size - index - 1);
+        System.arraycopy(deadlines, index + 1, deadlines, index, size - index - 1);
+        System.arraycopy(wcets, index + 1, wcets, index, size - index - 1);
+        System.arraycopy(ceilWcets, index + 1, ceilWcets, index, size - index - 1);
+        size--;
+        tasks[size] = null;
+        slotById[task.getId()] = -1;
+        updateSlots(index, size);
+        return task;
+    }
+
+    /*
+     * removes and returns the task with this id, null if it is not in the list
+     * */
+    public Task removeById(int id) {
+        int index = indexOfId(id);
+        return index < 0 ? null : removeAt(index);
+    }
+
+    /*
+     * removes every task
+     * */
+    void removeAllTasks() {
+        for (int k = 0; k < size; k++) {
+            slotById[tasks[k].getId()] = -1;
+            tasks[k] = null;
+        }
+        size = 0;
+    }
+
+}
@@ -0,0 +1,52 @@
+package mcp;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TaskListTests {
+
+	TaskList list;
+
+	@Before
+	public void setUp() throws Exception {
+		list = new TaskList();
+		list.insert(new Task(4, 1, 10L, 11L));
+		list.insert(new Task(1, 1, 3L, 4L));
+		list.insert(new Task(3, 2, 5L, 6L));
+		list.insert(new Task(2, 1, 4L, 5L));
+		list.insert(new Task(0, 1, 6L, 6L));
+	}
+
+	@Test
+	public void testPriorityOrder() {
+		int[] expected = {1, 2, 0, 3, 4};
+		assertEquals(expected.length, list.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], (int) list.get(i).getId());
+			assertEquals(i, list.indexOfId(expected[i]));
+		}
+	}
+
+	@Test
+	public void testRemoveById() {
+		assertEquals(0, (int) list.removeById(0).getId());
+		assertNull(list.removeById(0));
+		assertEquals(-1, list.indexOfId(0));
+		assertEquals(2, list.indexOfId(3));
+		assertEquals(3, list.indexOfId(4));
+
+		list.insert(new Task(7, 1, 2L, 2L));
+		assertEquals(0, list.indexOfId(7));
+		assertEquals(4, list.indexOfId(4));
+	}
+
+	@Test
+	public void testRemoveAt() {
+		assertEquals(1, (int) list.removeAt(0).getId());
+		assertEquals(0, list.indexOfId(2));
+		assertEquals(4, list.size());
+	}
+
+}
@@ -1,7 +1,14 @@
 package mcp;
 
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.util.ArrayList;
 
+import org.junit.Test;
+
 public class TestParser {
     /**
      * Method which tests the xml parser by running it on the small example, and by printing the
@@ -20,4 +27,50 @@ public class TestParser {
             System.out.println(mcp);
         }
     }
+
+    static String write(String content) throws IOException {
+        File file = File.createTempFile("solution", ".xml");
+        file.deleteOnExit();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+        return file.getPath();
+    }
+
+    @Test
+    public void testPlacementsFromXml() throws Exception {
+        String path = write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n<Solution>\n"
+                + "<Task Core=\"0\" MCP=\"0\" WCRT=\"3521\" id=\"1\"/>\n"
+                + "<Task Core=\"2\" MCP=\"1\" WCRT=\"250\" id=\"4\"/>\n"
+                + "</Solution>\n<!--Total Laxity: 100-->\n");
+        ArrayList<Placement> placements = Parser.createPlacementsFromXml(path);
+        assertEquals(2, placements.size());
+        assertEquals(1, placements.get(0).getTaskId());
+        assertEquals(0, placements.get(0).getMcpId());
+        assertEquals(0, placements.get(0).getCoreId());
+        assertEquals(3521, placements.get(0).getWCRT());
+        assertEquals(4, placements.get(1).getTaskId());
+        assertEquals(1, placements.get(1).getMcpId());
+        assertEquals(2, placements.get(1).getCoreId());
+    }
+
+    @Test
+    public void testUnknownTasksAndCoresAreKept() throws Exception {
+        // the parser does not know the model: the repair decides what to do with these
+        String path = write("<Solution>\n"
+                + "<Task Core=\"9\" MCP=\"0\" WCRT=\"1\" id=\"0\"/>\n"
+                + "<Task Core=\"0\" MCP=\"7\" WCRT=\"1\" id=\"1\"/>\n"
+                + "<Task Core=\"0\" MCP=\"0\" WCRT=\"1\" id=\"99\"/>\n"
+                + "</Solution>");
+        ArrayList<Placement> placements = Parser.createPlacementsFromXml(path);
+        assertEquals(3, placements.size());
+        assertEquals(9, placements.get(0).getCoreId());
+        assertEquals(7, placements.get(1).getMcpId());
+        assertEquals(99, placements.get(2).getTaskId());
+    }
+
+    @Test
+    public void testMissingSolution() {
+        assertTrue(Parser.createPlacementsFromXml("does-not-exist.xml").isEmpty());
+    }
 }
@@ -14,10 +14,13 @@ import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Locale;
 
 public class XMLExport {
 
     private ArrayList<MCP> mcps;
+    // upper bound on the total laxity, reported with the gap next to the total laxity when it is known
+    private long laxityBound = Long.MAX_VALUE;
 
     public XMLExport() {
         this.mcps = new ArrayList<MCP>();
@@ -31,6 +34,10 @@ public class XMLExport {
         this.mcps.add(mcp);
     }
 
+    public void setLaxityBound(long laxityBound) {
+        this.laxityBound = laxityBound;
+    }
+
     /**
      * Method
      *
@@ -45,6 +52,11 @@ public class XMLExport {
             Element root = document.createElement("Solution");
             document.appendChild(root);
 
+            // the laxity is computed first: it runs the analysis of the cores whose tasks changed since
+            // their last one, otherwise the WCRTs written below could be the ones of a move that was undone
+            int totalLaxity = 0;
+            for (MCP m : this.mcps) totalLaxity += m.getLaxity();
+
             // we loop through the different mcps
             for (MCP mcp : this.mcps) {
                 int mcpId = mcp.getId();
@@ -83,11 +95,13 @@ public class XMLExport {
                 }
             }
 
-            int totalLaxity = 0;
-            for (MCP m : this.mcps) totalLaxity += m.getLaxity();
-
             Element element = document.getDocumentElement();
-            Comment comment = document.createComment("Total Laxity: " + totalLaxity);
+            String text = "Total Laxity: " + totalLaxity;
+            if (laxityBound != Long.MAX_VALUE) {
+                double gap = laxityBound == 0 ? 0 : (double) (laxityBound - totalLaxity) / Math.abs(laxityBound);
+                text += String.format(Locale.ROOT, ", Upper Bound: %d, Gap: %.4f%%", laxityBound, 100 * gap);
+            }
+            Comment comment = document.createComment(text);
             document.appendChild(comment);
 
             TransformerFactory transformerFactory = TransformerFactory.newInstance();